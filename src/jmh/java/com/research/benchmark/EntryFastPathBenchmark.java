@@ -0,0 +1,78 @@
+package com.research.benchmark;
+
+import com.research.model.GatePass;
+import com.research.model.Vehicle;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.GateLaneService;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resident entry decision: the allocation-free fast path against requestEntry.
+ * Run with {@code -prof gc}; decideEntry should report ~0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryFastPathBenchmark {
+    private static final int VEHICLES = 10_000;
+    private static final int LANES = 4;
+
+    private TrafficService trafficService;
+    private GatePassRepository passRepository;
+    private int nextVehicle;
+
+    @Setup
+    public void setUp() {
+        ValidationService validationService = new ValidationService();
+        VehicleRepository vehicleRepository = new VehicleRepository();
+        passRepository = new GatePassRepository();
+        GateLaneService laneService = new GateLaneService(new GateLaneRepository(), validationService);
+        trafficService = new TrafficService(passRepository, vehicleRepository, laneService,
+                new VisitReservationRepository(), validationService);
+
+        for (int i = 1; i <= LANES; i++) {
+            laneService.addLane(i, i, Integer.MAX_VALUE);
+        }
+        for (int i = 1; i <= VEHICLES; i++) {
+            vehicleRepository.save(new Vehicle(i, "FAST-" + i, null, null, true));
+        }
+    }
+
+    private int nextVehicleId() {
+        int id = nextVehicle + 1;
+        nextVehicle = id == VEHICLES ? 0 : id;
+        return id;
+    }
+
+    @Benchmark
+    public int decideEntry() {
+        return trafficService.decideEntry(nextVehicleId());
+    }
+
+    @Benchmark
+    public int requestEntry() {
+        GatePass pass = trafficService.requestEntry(nextVehicleId());
+        // Keep the repository from growing across iterations
+        passRepository.delete(pass.getId());
+        return pass.getId();
+    }
+}
@@ -0,0 +1,57 @@
+package com.research.benchmark;
+
+import com.research.model.GateLane;
+import com.research.repository.GateLaneRepository;
+import com.research.service.GateLaneService;
+import com.research.service.ValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lane selection as the number of lanes grows: the selector's published head against
+ * listing every lane with capacity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LaneSelectionBenchmark {
+
+    @Param({"4", "100", "10000"})
+    public int lanes;
+
+    private GateLaneService laneService;
+
+    @Setup
+    public void setUp() {
+        laneService = new GateLaneService(new GateLaneRepository(), new ValidationService());
+        for (int i = 1; i <= lanes; i++) {
+            laneService.addLane(i, i, Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public Optional<GateLane> getAvailableLane() {
+        return laneService.getAvailableLane();
+    }
+
+    @Benchmark
+    public List<GateLane> getAvailableLanes() {
+        return laneService.getAvailableLanes();
+    }
+}
@@ -0,0 +1,87 @@
+package com.research.benchmark;
+
+import com.research.model.GateLane;
+import com.research.model.GatePass;
+import com.research.model.LaneStatus;
+import com.research.model.PassDirection;
+import com.research.model.Vehicle;
+import com.research.repository.GatePassRepository;
+import com.research.util.EpochClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-lane time range count: range index and columnar history vs. the previous full-table scan.
+ * One day of traffic spread evenly over the lanes, queried for a one-hour window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LaneTrafficCountBenchmark {
+    private static final int LANES = 4;
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"100", "10000", "100000", "1000000"})
+    public int passes;
+
+    private GatePassRepository passRepository;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private long windowStartSecond;
+    private long windowEndSecond;
+
+    @Setup
+    public void setUp() {
+        passRepository = new GatePassRepository();
+        GateLane[] lanes = new GateLane[LANES];
+        for (int i = 0; i < LANES; i++) {
+            lanes[i] = new GateLane(i + 1, i + 1, 60, LaneStatus.OPEN);
+        }
+        Vehicle vehicle = new Vehicle(1, "BENCH-1", null, null, true);
+
+        long spacingMillis = TimeUnit.DAYS.toMillis(1) / passes;
+        for (int i = 0; i < passes; i++) {
+            GatePass pass = new GatePass(0, vehicle, lanes[i % LANES], PassDirection.ENTRY);
+            pass.setPassTime(DAY_START.plusNanos(TimeUnit.MILLISECONDS.toNanos(i * spacingMillis)));
+            passRepository.save(pass);
+        }
+
+        windowStart = DAY_START.plusHours(12);
+        windowEnd = windowStart.plusHours(1);
+        windowStartSecond = EpochClock.toEpochMillis(windowStart) / 1000;
+        windowEndSecond = EpochClock.toEpochMillis(windowEnd) / 1000;
+    }
+
+    @Benchmark
+    public int rangeIndex() {
+        return passRepository.countByLaneIdBetween(1, windowStart, windowEnd);
+    }
+
+    @Benchmark
+    public int columnarHistory() {
+        return passRepository.getHistory().countByLaneBetween(1, windowStartSecond, windowEndSecond);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        return (int) passRepository.findAll().stream()
+                .filter(pass -> pass.getLane().getId() == 1)
+                .filter(pass -> !pass.getPassTime().isBefore(windowStart) && !pass.getPassTime().isAfter(windowEnd))
+                .count();
+    }
+}
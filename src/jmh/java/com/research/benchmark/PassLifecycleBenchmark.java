@@ -0,0 +1,89 @@
+package com.research.benchmark;
+
+import com.research.model.GatePass;
+import com.research.model.Vehicle;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.GateLaneService;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full gate pass cycle, requestEntry -> approvePass -> completePass, against a pool of
+ * {@code vehicles} registered vehicles and {@code passes} passes already on record, plus
+ * the lane traffic report over that history. Lanes are unlimited so the cycle never
+ * fails on capacity; run with {@code -t} to contend on lanes and the pass repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassLifecycleBenchmark {
+    private static final int LANES = 4;
+
+    @Param({"100", "10000", "1000000"})
+    public int passes;
+
+    @Param({"1000"})
+    public int vehicles;
+
+    private TrafficService trafficService;
+    private GatePassRepository passRepository;
+
+    @Setup
+    public void setUp() {
+        ValidationService validationService = new ValidationService();
+        VehicleRepository vehicleRepository = new VehicleRepository();
+        passRepository = new GatePassRepository();
+        GateLaneService laneService = new GateLaneService(new GateLaneRepository(), validationService);
+        trafficService = new TrafficService(passRepository, vehicleRepository, laneService,
+                new VisitReservationRepository(), validationService);
+
+        for (int i = 1; i <= LANES; i++) {
+            laneService.addLane(i, i, Integer.MAX_VALUE);
+        }
+        for (int i = 1; i <= vehicles; i++) {
+            vehicleRepository.save(new Vehicle(i, "CYC-" + i, null, null, true));
+        }
+        for (int i = 0; i < passes; i++) {
+            GatePass pass = trafficService.requestEntry(i % vehicles + 1);
+            trafficService.completePass(trafficService.approvePass(pass.getId()).getId());
+        }
+    }
+
+    @Benchmark
+    public GatePass requestApproveComplete() {
+        int vehicleId = ThreadLocalRandom.current().nextInt(1, vehicles + 1);
+        GatePass pass = trafficService.requestEntry(vehicleId);
+        trafficService.approvePass(pass.getId());
+        GatePass completed = trafficService.completePass(pass.getId());
+        // Keep the history at the configured size
+        passRepository.delete(pass.getId());
+        return completed;
+    }
+
+    @Benchmark
+    public int laneTrafficCount() {
+        LocalDateTime now = LocalDateTime.now();
+        return trafficService.getLaneTrafficCount(1, now.minusHours(1), now);
+    }
+}
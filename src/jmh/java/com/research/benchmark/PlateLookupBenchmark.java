@@ -0,0 +1,67 @@
+package com.research.benchmark;
+
+import com.research.model.Vehicle;
+import com.research.repository.VehicleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plate lookup through the plate index against a predicate scan, for hits and misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlateLookupBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private VehicleRepository repository;
+    private String[] plates;
+
+    @Setup
+    public void setUp() {
+        repository = new VehicleRepository();
+        plates = new String[size];
+        for (int i = 0; i < size; i++) {
+            plates[i] = "PLT-" + i;
+            repository.save(new Vehicle(i + 1, plates[i], null, null, true));
+        }
+    }
+
+    private String randomPlate() {
+        return plates[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    @Benchmark
+    public Optional<Vehicle> findByPlateNumber() {
+        return repository.findByPlateNumber(randomPlate());
+    }
+
+    @Benchmark
+    public Optional<Vehicle> findByPlateNumberMiss() {
+        return repository.findByPlateNumber("UNKNOWN-1");
+    }
+
+    @Benchmark
+    public Optional<Vehicle> findByPlateScan() {
+        String plate = randomPlate();
+        return repository.findOneBy(vehicle -> vehicle.getPlateNumber().equalsIgnoreCase(plate));
+    }
+}
@@ -0,0 +1,79 @@
+package com.research.benchmark;
+
+import com.research.model.Resident;
+import com.research.repository.ResidentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryRepository CRUD and predicate scans over a shared repository of {@code size}
+ * residents. All benchmark threads ({@code -t}) hit the same repository, so this also
+ * shows how the striped write locks hold up under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryCrudBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private ResidentRepository repository;
+
+    @Setup
+    public void setUp() {
+        repository = new ResidentRepository();
+        for (int i = 1; i <= size; i++) {
+            repository.save(new Resident(i, "Resident " + i, "r" + i + "@bench.com", "+20100000000", "U-" + i));
+        }
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, size + 1);
+    }
+
+    @Benchmark
+    public Optional<Resident> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public Resident update() {
+        Resident resident = repository.findById(randomId()).orElseThrow();
+        return repository.update(resident);
+    }
+
+    @Benchmark
+    public int saveThenDelete() {
+        Resident saved = repository.save(new Resident(0, "Transient", "t@bench.com", "+20100000000", "T-1"));
+        repository.delete(saved.getId());
+        return saved.getId();
+    }
+
+    @Benchmark
+    public Optional<Resident> findByIndex() {
+        return repository.findByUnitNumber("U-" + randomId());
+    }
+
+    @Benchmark
+    public Optional<Resident> findByScan() {
+        String unit = "U-" + randomId();
+        return repository.findOneBy(resident -> unit.equals(resident.getUnitNumber()));
+    }
+}
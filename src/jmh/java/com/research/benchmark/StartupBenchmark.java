@@ -0,0 +1,102 @@
+package com.research.benchmark;
+
+import com.research.model.GateLane;
+import com.research.model.GatePass;
+import com.research.model.LaneStatus;
+import com.research.model.PassDirection;
+import com.research.model.PassStatus;
+import com.research.model.Vehicle;
+import com.research.persistence.FsyncPolicy;
+import com.research.persistence.GateDataStore;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.ResidentRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VehicleTypeRepository;
+import com.research.repository.VisitReservationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to restore the repositories on startup against the number of gate passes on disk.
+ * Every pass is saved and then approved, so the log holds two records per pass;
+ * "log" replays all of them, "snapshot" loads one snapshot with an empty log tail.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int passes;
+
+    @Param({"log", "snapshot"})
+    public String restoreFrom;
+
+    private Path dataDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("gate-startup-bench");
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            Repositories repositories = new Repositories(store);
+            Vehicle vehicle = repositories.vehicles.save(new Vehicle(0, "BENCH-1", null, null, true));
+            GateLane lane = repositories.lanes.save(new GateLane(0, 1, 60, LaneStatus.OPEN));
+            for (int i = 0; i < passes; i++) {
+                GatePass pass = repositories.passes.save(new GatePass(0, vehicle, lane, PassDirection.ENTRY));
+                pass.setStatus(PassStatus.APPROVED);
+                repositories.passes.update(pass);
+            }
+            if (restoreFrom.equals("snapshot")) {
+                store.snapshotAll();
+            }
+        }
+    }
+
+    @Benchmark
+    public int restore() throws IOException {
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            return new Repositories(store).passes.findAll().size();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static final class Repositories {
+        private final VehicleRepository vehicles = new VehicleRepository();
+        private final GateLaneRepository lanes = new GateLaneRepository();
+        private final GatePassRepository passes = new GatePassRepository();
+
+        private Repositories(GateDataStore store) throws IOException {
+            store.attach(new ResidentRepository(), new VehicleTypeRepository(), vehicles, lanes, passes,
+                    new VisitReservationRepository());
+        }
+    }
+}
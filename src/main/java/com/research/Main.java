@@ -1,13 +1,42 @@
 package com.research;
 
 import com.research.model.VehicleType;
+import com.research.persistence.FsyncPolicy;
+import com.research.persistence.GateDataStore;
 import com.research.repository.*;
 import com.research.service.*;
 import com.research.ui.ConsoleUI;
+import com.research.ui.TerminalServer;
+import com.research.util.CachedEpochClock;
+import com.research.util.EpochClock;
+
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
 
 public class Main {
+    private static final int DEFAULT_SERVER_PORT = 7070;
+    private static final int MAX_TRACKED_PLATES = 100_000;
+
+    // Usage: Main                   -> single console session
+    //        Main --server [port]   -> terminal server, one session per connection
+    //        Main --ingest-file <path> | --ingest-socket <host:port>
+    //                               -> decide a stream of camera plate reads, one decision per line,
+    //                                  each for the lane and time the read carries
+    // With -Dgate.data.dir=<dir> the repositories are restored from and logged to <dir>;
+    // -Dgate.fsync=always|interval|never picks the log's fsync policy (default: always),
+    // -Dgate.snapshot.minutes=<n> how often repositories are snapshotted (default: 5).
+    // -Dgate.clock.resolution.millis=<n> timestamps entities from a clock cached at that resolution.
+    // -Dgate.ingest.dedupe.millis=<n> drops repeat reads of a plate within n ms (default: 5000).
     public static void main(String[] args) {
         try {
+            Long clockResolution = Long.getLong("gate.clock.resolution.millis");
+            if (clockResolution != null) {
+                EpochClock.setCurrent(new CachedEpochClock(Duration.ofMillis(clockResolution)));
+            }
+
             // Initialize repositories
             ResidentRepository residentRepository = new ResidentRepository();
             VehicleTypeRepository vehicleTypeRepository = new VehicleTypeRepository();
@@ -16,6 +45,25 @@ public class Main {
             GatePassRepository passRepository = new GatePassRepository();
             VisitReservationRepository reservationRepository = new VisitReservationRepository();
 
+            String dataDir = System.getProperty("gate.data.dir");
+            if (dataDir != null) {
+                FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(
+                        System.getProperty("gate.fsync", "always").toUpperCase(Locale.ROOT));
+                GateDataStore dataStore = new GateDataStore(Path.of(dataDir), fsyncPolicy);
+                dataStore.attach(residentRepository, vehicleTypeRepository, vehicleRepository,
+                        laneRepository, passRepository, reservationRepository);
+                dataStore.startSnapshots(Duration.ofMinutes(Long.getLong("gate.snapshot.minutes", 5)));
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    // Expiries being written go to the log before it closes
+                    reservationRepository.close();
+                    try {
+                        dataStore.close();
+                    } catch (java.io.IOException e) {
+                        System.err.println("Failed to close data store: " + e.getMessage());
+                    }
+                }));
+            }
+
             // Initialize validation service
             ValidationService validationService = new ValidationService();
 
@@ -31,10 +79,28 @@ public class Main {
             TrafficService trafficService = new TrafficService(
                     passRepository, vehicleRepository, laneService, reservationRepository, validationService);
 
-            // Initialize and start UI
+            if (args.length > 0 && args[0].equals("--server")) {
+                int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT;
+                try (TerminalServer server = new TerminalServer(port, (in, out) -> new ConsoleUI(
+                        residentService, vehicleService, laneService,
+                        trafficService, visitorService, validationService, in, out, false))) {
+                    System.out.println("Gate terminal server listening on port " + server.getPort()
+                            + (server.usesVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+                    server.serve();
+                }
+                return;
+            }
+
+            if (args.length > 1 && args[0].startsWith("--ingest-")) {
+                ingest(trafficService, args[0], args[1]);
+                return;
+            }
+
+            // Initialize and start UI; sample data is only loaded into a non-persistent session
             ConsoleUI ui = new ConsoleUI(
                     residentService, vehicleService, laneService,
-                    trafficService, visitorService, validationService);
+                    trafficService, visitorService, validationService,
+                    System.in, System.out, dataDir == null);
 
             ui.start();
 
@@ -45,11 +111,39 @@ public class Main {
         }
     }
 
+    private static void ingest(TrafficService trafficService, String mode, String source) throws java.io.IOException {
+        PlateStreamIngestor ingestor = new PlateStreamIngestor(trafficService,
+                Duration.ofMillis(Long.getLong("gate.ingest.dedupe.millis", 5_000)), MAX_TRACKED_PLATES);
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out, 1 << 16), false);
+        PlateStreamIngestor.DecisionListener listener = (read, decision) ->
+                out.println(read.timestampMillis() + "," + read.laneNumber() + "," + read.plateNumber() + ","
+                        + EntryDecision.describe(decision));
+        PlateStreamIngestor.IngestStats stats;
+        if (mode.equals("--ingest-socket")) {
+            int colon = source.lastIndexOf(':');
+            stats = ingestor.ingestSocket(source.substring(0, colon), Integer.parseInt(source.substring(colon + 1)),
+                    listener);
+        } else if (mode.equals("--ingest-file")) {
+            stats = ingestor.ingestFile(Path.of(source), listener);
+        } else {
+            throw new IllegalArgumentException("Unknown ingestion mode " + mode);
+        }
+        out.flush();
+        System.err.println(stats);
+    }
+
     private static void initializeVehicleTypes(VehicleTypeRepository repository) {
-        repository.save(new VehicleType(1, "Car", "Passenger car"));
-        repository.save(new VehicleType(2, "SUV", "Sports Utility Vehicle"));
-        repository.save(new VehicleType(3, "Motorcycle", "Two-wheeler"));
-        repository.save(new VehicleType(4, "Truck", "Commercial vehicle"));
-        repository.save(new VehicleType(5, "Van", "Passenger van"));
+        // Types restored from the data directory are kept as they are
+        saveIfAbsent(repository, new VehicleType(1, "Car", "Passenger car"));
+        saveIfAbsent(repository, new VehicleType(2, "SUV", "Sports Utility Vehicle"));
+        saveIfAbsent(repository, new VehicleType(3, "Motorcycle", "Two-wheeler"));
+        saveIfAbsent(repository, new VehicleType(4, "Truck", "Commercial vehicle"));
+        saveIfAbsent(repository, new VehicleType(5, "Van", "Passenger van"));
+    }
+
+    private static void saveIfAbsent(VehicleTypeRepository repository, VehicleType type) {
+        if (!repository.existsById(type.getId())) {
+            repository.save(type);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.research.exception;
+
+/**
+ * No open lane can take the vehicle right now.
+ */
+public class NoLaneAvailableException extends BusinessRuleViolationException {
+    public NoLaneAvailableException(String message) {
+        super(message);
+    }
+}
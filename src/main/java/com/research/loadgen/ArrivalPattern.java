@@ -0,0 +1,64 @@
+package com.research.loadgen;
+
+/**
+ * Shape of arrivals over a run. Each pattern scales the scenario's base arrival rate by a
+ * multiplier that depends on how far into the run an arrival falls, and decides which
+ * share of arrivals are visitors rather than residents.
+ */
+public enum ArrivalPattern {
+    /** Constant rate: a homogeneous Poisson process. */
+    POISSON {
+        @Override
+        double rateMultiplier(double progress) {
+            return 1;
+        }
+    },
+    /** Morning and evening peaks at a quarter and three quarters of the run, up to 4x the base rate. */
+    RUSH_HOUR {
+        @Override
+        double rateMultiplier(double progress) {
+            return 1 + 3 * peak(progress, 0.25) + 3 * peak(progress, 0.75);
+        }
+
+        @Override
+        double maxRateMultiplier() {
+            return 4;
+        }
+
+        private double peak(double progress, double center) {
+            double distance = (progress - center) / 0.07;
+            return Math.exp(-distance * distance);
+        }
+    },
+    /** Base resident traffic with a burst of visitors in the first tenth of every tenth of the run. */
+    VISITOR_BURST {
+        @Override
+        double rateMultiplier(double progress) {
+            return inBurst(progress) ? 5 : 1;
+        }
+
+        @Override
+        double maxRateMultiplier() {
+            return 5;
+        }
+
+        @Override
+        double visitorShare(double progress, double baseShare) {
+            return inBurst(progress) ? 0.9 : baseShare;
+        }
+
+        private boolean inBurst(double progress) {
+            return (progress * 10) % 1 < 0.1;
+        }
+    };
+
+    abstract double rateMultiplier(double progress);
+
+    double maxRateMultiplier() {
+        return 1;
+    }
+
+    double visitorShare(double progress, double baseShare) {
+        return baseShare;
+    }
+}
@@ -0,0 +1,19 @@
+package com.research.loadgen;
+
+/**
+ * One scheduled arrival: a registered vehicle by id, or a visitor by plate.
+ */
+public record LoadEvent(long offsetMillis, Kind kind, int vehicleId, String plate) {
+
+    public enum Kind {
+        RESIDENT_ENTRY, VISITOR_ENTRY
+    }
+
+    public static LoadEvent resident(long offsetMillis, int vehicleId) {
+        return new LoadEvent(offsetMillis, Kind.RESIDENT_ENTRY, vehicleId, null);
+    }
+
+    public static LoadEvent visitor(long offsetMillis, String plate) {
+        return new LoadEvent(offsetMillis, Kind.VISITOR_ENTRY, 0, plate);
+    }
+}
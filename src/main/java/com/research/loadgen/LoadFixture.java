@@ -0,0 +1,124 @@
+package com.research.loadgen;
+
+import com.research.model.VehicleType;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.ResidentRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VehicleTypeRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.GateLaneService;
+import com.research.service.ResidentService;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import com.research.service.VehicleService;
+import com.research.service.VisitorService;
+import com.research.util.EpochClock;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fresh set of services populated for a scenario through the regular service APIs, so
+ * validation and indexing costs are the same as in production. Ids and plates are
+ * derived from counters, so the same scenario always builds the same data.
+ * <p>
+ * The fixture owns the clock its data is dated by: visits are booked around the clock's
+ * time, and {@link LoadRunner} runs against the same clock. With a {@link
+ * com.research.util.FixedEpochClock} a run does not depend on the time of day it is started at.
+ */
+public class LoadFixture {
+    // Every n-th vehicle is registered with access revoked
+    private static final int DISALLOWED_EVERY = 25;
+    private static final LocalTime EARLIEST_VISIT = LocalTime.of(6, 0);
+    private static final LocalTime LATEST_VISIT = LocalTime.of(22, 0);
+
+    private final EpochClock clock;
+    private final TrafficService trafficService;
+    private final GateLaneService laneService;
+    private final GatePassRepository passRepository;
+
+    public LoadFixture(LoadScenario scenario) {
+        this(scenario, EpochClock.current());
+    }
+
+    public LoadFixture(LoadScenario scenario, EpochClock clock) {
+        this.clock = clock;
+        EpochClock previous = EpochClock.current();
+        EpochClock.setCurrent(clock);
+        try {
+            ValidationService validationService = new ValidationService();
+            ResidentRepository residentRepository = new ResidentRepository();
+            VehicleTypeRepository vehicleTypeRepository = new VehicleTypeRepository();
+            VehicleRepository vehicleRepository = new VehicleRepository();
+            VisitReservationRepository reservationRepository = new VisitReservationRepository();
+            passRepository = new GatePassRepository();
+
+            ResidentService residentService = new ResidentService(residentRepository, validationService);
+            VehicleService vehicleService = new VehicleService(
+                    vehicleRepository, vehicleTypeRepository, residentRepository, validationService);
+            VisitorService visitorService = new VisitorService(reservationRepository, validationService);
+            laneService = new GateLaneService(new GateLaneRepository(), validationService);
+            trafficService = new TrafficService(
+                    passRepository, vehicleRepository, laneService, reservationRepository, validationService);
+
+            vehicleTypeRepository.save(new VehicleType(1, "Car", "Passenger car"));
+            int vehicleId = 1;
+            for (int r = 1; r <= scenario.residents(); r++) {
+                residentService.addResident(r, "Resident " + r, "resident" + r + "@loadgen.test",
+                        "+2010" + String.format("%08d", r), "U-" + r);
+                for (int v = 0; v < scenario.vehiclesPerResident(); v++, vehicleId++) {
+                    vehicleService.registerVehicle(vehicleId, residentPlate(vehicleId), r, 1,
+                            vehicleId % DISALLOWED_EVERY != 0);
+                }
+            }
+            for (int l = 1; l <= scenario.lanes(); l++) {
+                laneService.addLane(l, l, scenario.laneCapacityPerMinute());
+            }
+            // Visits are booked around the clock's time so the run falls inside their access window
+            LocalDateTime now = EpochClock.toLocalDateTime(clock.millis()).truncatedTo(ChronoUnit.MINUTES);
+            LocalTime visitTime = clamp(now.toLocalTime());
+            for (int i = 1; i <= scenario.reservations(); i++) {
+                visitorService.createReservation(i, "Visitor " + i, visitorPlate(i), now.toLocalDate(), visitTime, 1);
+            }
+        } finally {
+            EpochClock.setCurrent(previous);
+        }
+    }
+
+    public EpochClock getClock() {
+        return clock;
+    }
+
+    public TrafficService getTrafficService() {
+        return trafficService;
+    }
+
+    public GateLaneService getLaneService() {
+        return laneService;
+    }
+
+    public GatePassRepository getPassRepository() {
+        return passRepository;
+    }
+
+    static String residentPlate(int vehicleId) {
+        return String.format("RES-%06d", vehicleId);
+    }
+
+    static String visitorPlate(int reservation) {
+        return String.format("VIS-%06d", reservation);
+    }
+
+    static String unreservedPlate(int n) {
+        return String.format("UNR-%06d", n);
+    }
+
+    private static LocalTime clamp(LocalTime time) {
+        if (time.isBefore(EARLIEST_VISIT)) {
+            return EARLIEST_VISIT;
+        }
+        return time.isAfter(LATEST_VISIT) ? LATEST_VISIT : time;
+    }
+}
@@ -0,0 +1,69 @@
+package com.research.loadgen;
+
+import com.research.util.EpochClock;
+import com.research.util.FixedEpochClock;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point for load runs.
+ * <pre>
+ * LoadGeneratorMain [--setting=value ...] [--timeScale=N] [--startAt=2030-01-15T12:00]
+ *                   [--record=file | --replay=file]
+ * </pre>
+ * Settings are the {@link LoadScenario} fields, e.g. {@code --pattern=rush_hour
+ * --arrivalsPerSecond=50 --durationSeconds=120 --threads=16}. {@code --record} saves the
+ * generated schedule; {@code --replay} runs a saved one and ignores scenario settings.
+ * {@code --startAt} fixes the clock the data is dated and the run is played at, so visitor
+ * admissions do not depend on the time of day; without it the system clock is used.
+ */
+public final class LoadGeneratorMain {
+
+    private LoadGeneratorMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        double timeScale = 1;
+        Path record = null;
+        Path replay = null;
+        EpochClock clock = EpochClock.current();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "timeScale" -> timeScale = Double.parseDouble(value);
+                case "record" -> record = Path.of(value);
+                case "replay" -> replay = Path.of(value);
+                case "startAt" -> clock = new FixedEpochClock(EpochClock.toEpochMillis(LocalDateTime.parse(value)));
+                default -> settings.put(name, value);
+            }
+        }
+
+        LoadScenario scenario;
+        List<LoadEvent> events;
+        if (replay != null) {
+            ScheduleFile.Recording recording = ScheduleFile.read(replay);
+            scenario = recording.scenario();
+            events = recording.events();
+        } else {
+            scenario = LoadScenario.defaults().with(settings);
+            events = ScheduleGenerator.generate(scenario);
+        }
+        if (record != null) {
+            ScheduleFile.write(record, scenario, events);
+        }
+
+        System.out.println("Scenario: " + scenario.toSettings());
+        LoadFixture fixture = new LoadFixture(scenario, clock);
+        LoadReport report = new LoadRunner(fixture, scenario.threads(), timeScale).run(events);
+        report.print(System.out);
+    }
+}
@@ -0,0 +1,85 @@
+package com.research.loadgen;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of one load run.
+ */
+public class LoadReport {
+    private final int arrivals;
+    private final long elapsedNanos;
+    private final long admitted;
+    private final Map<String, Long> denials;
+    private final long errors;
+    private final long[] sortedLatencies;
+    private final List<LaneUtilization> lanes;
+
+    public record LaneUtilization(int laneNumber, long admitted, double utilizationPercent) {
+    }
+
+    public LoadReport(int arrivals, long elapsedNanos, long admitted, Map<String, Long> denials, long errors,
+                      long[] latencies, List<LaneUtilization> lanes) {
+        this.arrivals = arrivals;
+        this.elapsedNanos = elapsedNanos;
+        this.admitted = admitted;
+        this.denials = Collections.unmodifiableMap(denials);
+        this.errors = errors;
+        this.sortedLatencies = latencies.clone();
+        Arrays.sort(this.sortedLatencies);
+        this.lanes = List.copyOf(lanes);
+    }
+
+    public int getArrivals() { return arrivals; }
+    public long getAdmitted() { return admitted; }
+    public long getErrors() { return errors; }
+    public Map<String, Long> getDenials() { return denials; }
+    public List<LaneUtilization> getLanes() { return lanes; }
+
+    public long getDenied() {
+        return denials.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public double getDenialRate() {
+        return arrivals == 0 ? 0 : (double) getDenied() / arrivals;
+    }
+
+    public double getThroughputPerSecond() {
+        return arrivals / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Latency at the given percentile (0-100), in nanoseconds from the scheduled arrival.
+     */
+    public long latencyPercentile(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(rank, sortedLatencies.length - 1))];
+    }
+
+    public void print(PrintStream out) {
+        out.printf("Arrivals: %d in %.2fs (%.1f/s)%n", arrivals, elapsedNanos / 1e9, getThroughputPerSecond());
+        out.printf("Admitted: %d, denied: %d (%.1f%%), errors: %d%n",
+                admitted, getDenied(), getDenialRate() * 100, errors);
+        denials.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(denial -> out.printf("  %6d  %s%n", denial.getValue(), denial.getKey()));
+        out.printf("Latency ms: p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n",
+                millis(latencyPercentile(50)), millis(latencyPercentile(90)), millis(latencyPercentile(99)),
+                millis(latencyPercentile(99.9)), millis(latencyPercentile(100)));
+        for (LaneUtilization lane : lanes) {
+            out.printf("Lane %d: %d admitted, %.1f%% of capacity%n",
+                    lane.laneNumber(), lane.admitted(), lane.utilizationPercent());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
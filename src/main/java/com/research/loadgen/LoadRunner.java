@@ -0,0 +1,143 @@
+package com.research.loadgen;
+
+import com.research.exception.BusinessRuleViolationException;
+import com.research.exception.NotFoundException;
+import com.research.exception.ValidationException;
+import com.research.model.GatePass;
+import com.research.model.PassStatus;
+import com.research.service.TrafficService;
+import com.research.util.EpochClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Plays a schedule against a fixture open-loop: each arrival is started at its scheduled
+ * time whether or not earlier ones have finished, by whichever gate thread is free.
+ * Latency is measured from the scheduled arrival, so time spent waiting for a free
+ * thread counts too and overload shows up as latency instead of being hidden.
+ * <p>
+ * An arrival is one gate cycle: request the pass, approve it if it is still pending and
+ * complete it. An arrival that is refused at any step counts as a denial; a pass left
+ * pending is denied. The run reads time from the fixture's clock.
+ */
+public class LoadRunner {
+    private static final Pattern PER_ARRIVAL_DETAIL = Pattern.compile("\\S*\\d\\S*");
+
+    private final LoadFixture fixture;
+    private final int threads;
+    private final double timeScale;
+
+    /**
+     * @param timeScale how many times faster than scheduled to play the arrivals
+     */
+    public LoadRunner(LoadFixture fixture, int threads, double timeScale) {
+        if (threads <= 0 || timeScale <= 0) {
+            throw new IllegalArgumentException("threads and timeScale must be positive");
+        }
+        this.fixture = fixture;
+        this.threads = threads;
+        this.timeScale = timeScale;
+    }
+
+    public LoadReport run(List<LoadEvent> events) throws InterruptedException {
+        EpochClock previous = EpochClock.current();
+        EpochClock.setCurrent(fixture.getClock());
+        try {
+            return play(events);
+        } finally {
+            EpochClock.setCurrent(previous);
+        }
+    }
+
+    private LoadReport play(List<LoadEvent> events) throws InterruptedException {
+        int count = events.size();
+        long[] latencies = new long[count];
+        LongAdder admitted = new LongAdder();
+        LongAdder errors = new LongAdder();
+        Map<String, LongAdder> denials = new ConcurrentHashMap<>();
+        Map<Integer, LongAdder> admittedByLane = new ConcurrentHashMap<>();
+        AtomicInteger cursor = new AtomicInteger();
+        TrafficService trafficService = fixture.getTrafficService();
+
+        ExecutorService gates = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            gates.execute(() -> {
+                try {
+                    int i;
+                    while ((i = cursor.getAndIncrement()) < count) {
+                        LoadEvent event = events.get(i);
+                        long due = start + (long) (TimeUnit.MILLISECONDS.toNanos(event.offsetMillis()) / timeScale);
+                        long wait;
+                        while ((wait = due - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        try {
+                            GatePass pass = passThroughGate(trafficService, event);
+                            admitted.increment();
+                            admittedByLane.computeIfAbsent(pass.getLane().getLaneNumber(), lane -> new LongAdder())
+                                    .increment();
+                        } catch (BusinessRuleViolationException | NotFoundException | ValidationException e) {
+                            denials.computeIfAbsent(reason(e), reason -> new LongAdder()).increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                        latencies[i] = System.nanoTime() - due;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        gates.shutdown();
+
+        Map<String, Long> denialCounts = new ConcurrentHashMap<>();
+        denials.forEach((reason, adder) -> denialCounts.put(reason, adder.sum()));
+        List<LoadReport.LaneUtilization> lanes = new ArrayList<>();
+        // Lane capacity is enforced over a sliding minute, so a shorter run can still fill a whole minute's worth
+        double capacityMinutes = Math.max(1, elapsed / (double) TimeUnit.MINUTES.toNanos(1));
+        fixture.getLaneService().getAllLanes().forEach(lane -> {
+            LongAdder laneAdmitted = admittedByLane.get(lane.getLaneNumber());
+            long through = laneAdmitted == null ? 0 : laneAdmitted.sum();
+            lanes.add(new LoadReport.LaneUtilization(lane.getLaneNumber(), through,
+                    100.0 * through / (lane.getCapacityPerMinute() * capacityMinutes)));
+        });
+        return new LoadReport(count, elapsed, admitted.sum(), denialCounts, errors.sum(), latencies, lanes);
+    }
+
+    // Plates and ids vary per arrival; strip them so denials group by cause
+    private static String reason(RuntimeException e) {
+        return PER_ARRIVAL_DETAIL.matcher(String.valueOf(e.getMessage())).replaceAll("#");
+    }
+
+    private static GatePass passThroughGate(TrafficService trafficService, LoadEvent event) {
+        GatePass pass = event.kind() == LoadEvent.Kind.RESIDENT_ENTRY
+                ? trafficService.requestEntry(event.vehicleId())
+                : trafficService.requestVisitorEntry(event.plate());
+        // Visitor entries come back approved already
+        if (pass.getStatus() == PassStatus.PENDING) {
+            try {
+                trafficService.approvePass(pass.getId());
+            } catch (RuntimeException e) {
+                trafficService.denyPass(pass.getId());
+                throw e;
+            }
+        }
+        trafficService.completePass(pass.getId());
+        return pass;
+    }
+}
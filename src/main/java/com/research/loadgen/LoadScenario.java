@@ -0,0 +1,64 @@
+package com.research.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Everything that determines a load run: the data set built before it, the arrival
+ * schedule (fully determined by pattern, rate, duration and seed) and the number of
+ * gate threads driving it.
+ */
+public record LoadScenario(int residents, int vehiclesPerResident, int lanes, int laneCapacityPerMinute,
+                           int reservations, ArrivalPattern pattern, double arrivalsPerSecond,
+                           int durationSeconds, double visitorShare, int threads, long seed) {
+
+    public static LoadScenario defaults() {
+        return new LoadScenario(500, 2, 4, 60, 200, ArrivalPattern.POISSON, 10, 60, 0.1, 8, 42);
+    }
+
+    public int vehicles() {
+        return residents * vehiclesPerResident;
+    }
+
+    /**
+     * Applies {@code key=value} overrides, keys as produced by {@link #toSettings()}.
+     */
+    public LoadScenario with(Map<String, String> settings) {
+        Map<String, String> merged = toSettings();
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            if (!merged.containsKey(setting.getKey())) {
+                throw new IllegalArgumentException("Unknown scenario setting: " + setting.getKey());
+            }
+            merged.put(setting.getKey(), setting.getValue());
+        }
+        return new LoadScenario(
+                Integer.parseInt(merged.get("residents")),
+                Integer.parseInt(merged.get("vehiclesPerResident")),
+                Integer.parseInt(merged.get("lanes")),
+                Integer.parseInt(merged.get("laneCapacityPerMinute")),
+                Integer.parseInt(merged.get("reservations")),
+                ArrivalPattern.valueOf(merged.get("pattern").toUpperCase(Locale.ROOT)),
+                Double.parseDouble(merged.get("arrivalsPerSecond")),
+                Integer.parseInt(merged.get("durationSeconds")),
+                Double.parseDouble(merged.get("visitorShare")),
+                Integer.parseInt(merged.get("threads")),
+                Long.parseLong(merged.get("seed")));
+    }
+
+    public Map<String, String> toSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("residents", String.valueOf(residents));
+        settings.put("vehiclesPerResident", String.valueOf(vehiclesPerResident));
+        settings.put("lanes", String.valueOf(lanes));
+        settings.put("laneCapacityPerMinute", String.valueOf(laneCapacityPerMinute));
+        settings.put("reservations", String.valueOf(reservations));
+        settings.put("pattern", pattern.name());
+        settings.put("arrivalsPerSecond", String.valueOf(arrivalsPerSecond));
+        settings.put("durationSeconds", String.valueOf(durationSeconds));
+        settings.put("visitorShare", String.valueOf(visitorShare));
+        settings.put("threads", String.valueOf(threads));
+        settings.put("seed", String.valueOf(seed));
+        return settings;
+    }
+}
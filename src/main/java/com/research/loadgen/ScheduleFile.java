@@ -0,0 +1,69 @@
+package com.research.loadgen;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded run: the scenario it was built from and its exact schedule, as text.
+ * The first line holds the scenario settings ({@code # key=value ...}); every other line
+ * is one arrival, {@code offsetMillis,kind,vehicleId,plate}. Replaying a recording
+ * rebuilds the same fixture and plays the same arrivals in the same order.
+ */
+public final class ScheduleFile {
+    private static final String HEADER = "# ";
+
+    private ScheduleFile() {
+    }
+
+    public record Recording(LoadScenario scenario, List<LoadEvent> events) {
+    }
+
+    public static void write(Path file, LoadScenario scenario, List<LoadEvent> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            StringBuilder header = new StringBuilder(HEADER);
+            scenario.toSettings().forEach((key, value) -> header.append(key).append('=').append(value).append(' '));
+            writer.write(header.toString().trim());
+            writer.newLine();
+            for (LoadEvent event : events) {
+                writer.write(event.offsetMillis() + "," + event.kind() + "," + event.vehicleId() + ","
+                        + (event.plate() == null ? "" : event.plate()));
+                writer.newLine();
+            }
+        }
+    }
+
+    public static Recording read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                throw new IOException("Missing scenario header in " + file);
+            }
+            Map<String, String> settings = new LinkedHashMap<>();
+            for (String setting : header.substring(HEADER.length()).trim().split(" ")) {
+                int equals = setting.indexOf('=');
+                settings.put(setting.substring(0, equals), setting.substring(equals + 1));
+            }
+            LoadScenario scenario = LoadScenario.defaults().with(settings);
+
+            List<LoadEvent> events = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                events.add(new LoadEvent(Long.parseLong(fields[0]), LoadEvent.Kind.valueOf(fields[1]),
+                        Integer.parseInt(fields[2]), fields[3].isEmpty() ? null : fields[3]));
+            }
+            return new Recording(scenario, events);
+        }
+    }
+}
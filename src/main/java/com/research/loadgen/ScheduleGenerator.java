@@ -0,0 +1,49 @@
+package com.research.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Turns a scenario into a concrete arrival schedule. Arrivals follow a Poisson process
+ * whose rate varies with the pattern, sampled by thinning: candidates are drawn at the
+ * peak rate and kept with probability current rate / peak rate. The same scenario
+ * always yields the same schedule.
+ */
+public final class ScheduleGenerator {
+    // Share of visitor arrivals whose plate has no reservation, to exercise denials
+    private static final double UNRESERVED_VISITOR_SHARE = 0.1;
+
+    private ScheduleGenerator() {
+    }
+
+    public static List<LoadEvent> generate(LoadScenario scenario) {
+        SplittableRandom random = new SplittableRandom(scenario.seed());
+        ArrivalPattern pattern = scenario.pattern();
+        double durationMillis = scenario.durationSeconds() * 1000.0;
+        double peakRatePerMilli = scenario.arrivalsPerSecond() * pattern.maxRateMultiplier() / 1000.0;
+
+        List<LoadEvent> events = new ArrayList<>();
+        double time = 0;
+        while (true) {
+            time += -Math.log(1 - random.nextDouble()) / peakRatePerMilli;
+            if (time >= durationMillis) {
+                return events;
+            }
+            double progress = time / durationMillis;
+            if (random.nextDouble() * pattern.maxRateMultiplier() > pattern.rateMultiplier(progress)) {
+                continue;
+            }
+            long offset = (long) time;
+            boolean visitor = scenario.reservations() > 0
+                    && random.nextDouble() < pattern.visitorShare(progress, scenario.visitorShare());
+            if (visitor) {
+                events.add(LoadEvent.visitor(offset, random.nextDouble() < UNRESERVED_VISITOR_SHARE
+                        ? LoadFixture.unreservedPlate(random.nextInt(scenario.reservations()) + 1)
+                        : LoadFixture.visitorPlate(random.nextInt(scenario.reservations()) + 1)));
+            } else {
+                events.add(LoadEvent.resident(offset, random.nextInt(scenario.vehicles()) + 1));
+            }
+        }
+    }
+}
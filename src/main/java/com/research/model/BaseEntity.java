@@ -1,15 +1,18 @@
 package com.research.model;
 
+import com.research.util.EpochClock;
+
 import java.time.LocalDateTime;
 
 public abstract class BaseEntity {
     protected int id;
-    protected LocalDateTime createdAt;
-    protected LocalDateTime updatedAt;
+    // Epoch millis from EpochClock; LocalDateTime views are only built when asked for
+    protected long createdAtMillis;
+    protected long updatedAtMillis;
 
     public BaseEntity() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAtMillis = EpochClock.now();
+        this.updatedAtMillis = createdAtMillis;
     }
 
     public int getId() {
@@ -21,14 +24,30 @@ public abstract class BaseEntity {
     }
 
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return EpochClock.toLocalDateTime(createdAtMillis);
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public void setCreatedAtMillis(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
     }
 
     public LocalDateTime getUpdatedAt() {
-        return updatedAt;
+        return EpochClock.toLocalDateTime(updatedAtMillis);
     }
 
     public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedAtMillis = EpochClock.toEpochMillis(updatedAt);
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    public void setUpdatedAtMillis(long updatedAtMillis) {
+        this.updatedAtMillis = updatedAtMillis;
     }
-}
\ No newline at end of file
+}
@@ -1,49 +1,139 @@
 package com.research.model;
 
+import com.research.util.ThroughputLimiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GateLane extends BaseEntity {
     private int laneNumber;
-    private int capacityPerMinute;
-    private LaneStatus status;
-    private int currentLoad;
+    private volatile int capacityPerMinute;
+    private volatile LaneStatus status;
+    // Vehicles approved through the lane and not yet completed
+    private final AtomicInteger currentLoad = new AtomicInteger();
+    // Admissions over the last minute; this is what capacityPerMinute limits
+    private final ThroughputLimiter throughput;
+    // Admissions of replayed past reads, on the reads' own timeline
+    private final ThroughputLimiter replayThroughput;
 
     public GateLane(int id, int laneNumber, int capacityPerMinute, LaneStatus status) {
         this.id = id;
         this.laneNumber = laneNumber;
         this.capacityPerMinute = capacityPerMinute;
         this.status = status;
-        this.currentLoad = 0;
+        this.throughput = ThroughputLimiter.perMinute(Math.max(1, capacityPerMinute));
+        this.replayThroughput = ThroughputLimiter.perMinute(Math.max(1, capacityPerMinute));
     }
 
     // Getters and Setters
     public int getLaneNumber() { return laneNumber; }
     public void setLaneNumber(int laneNumber) { this.laneNumber = laneNumber; }
     public int getCapacityPerMinute() { return capacityPerMinute; }
-    public void setCapacityPerMinute(int capacityPerMinute) { this.capacityPerMinute = capacityPerMinute; }
-    public LaneStatus getStatus() { return status; }
+    public void setCapacityPerMinute(int capacityPerMinute) {
+        this.capacityPerMinute = capacityPerMinute;
+        throughput.setPermits(Math.max(1, capacityPerMinute));
+        replayThroughput.setPermits(Math.max(1, capacityPerMinute));
+    }
+
+    /**
+     * An OPEN lane reports BUSY while its last-minute admissions are at capacity,
+     * and goes back to OPEN on its own as the window slides.
+     */
+    public LaneStatus getStatus() {
+        LaneStatus current = status;
+        return current == LaneStatus.OPEN && !hasCapacity() ? LaneStatus.BUSY : current;
+    }
     public void setStatus(LaneStatus status) { this.status = status; }
-    public int getCurrentLoad() { return currentLoad; }
-    public void setCurrentLoad(int currentLoad) { this.currentLoad = currentLoad; }
+
+    /**
+     * The status as stored, without the BUSY an OPEN lane reports while saturated.
+     */
+    public LaneStatus getStoredStatus() { return status; }
+
+    /**
+     * Whether the lane is administratively open, regardless of current saturation.
+     */
+    public boolean isOpen() { return status == LaneStatus.OPEN; }
+    public int getCurrentLoad() { return currentLoad.get(); }
+    public void setCurrentLoad(int currentLoad) { this.currentLoad.set(currentLoad); }
 
     public boolean hasCapacity() {
-        return currentLoad < capacityPerMinute;
+        return throughput.hasRoom(System.nanoTime());
     }
 
-    public void increaseLoad() {
-        if (currentLoad < capacityPerMinute) {
-            currentLoad++;
+    /**
+     * Admissions counted against the current one-minute window.
+     */
+    public int getRecentAdmissions() {
+        return Math.min(capacityPerMinute, throughput.permitsInUse(System.nanoTime()));
+    }
+
+    public int getRemainingCapacity() {
+        return Math.max(0, capacityPerMinute - getRecentAdmissions());
+    }
+
+    /**
+     * {@link System#nanoTime()} up to which admissions so far fill the lane's window at its
+     * configured rate. Lanes with an earlier value have a lower utilization.
+     */
+    public long getAdmittedUntilNanos() {
+        return throughput.theoreticalArrivalNanos();
+    }
+
+    /**
+     * Atomically admits one vehicle if the lane is open and under its per-minute rate.
+     */
+    public boolean tryReserve() {
+        if (!tryAdmit()) {
+            return false;
         }
+        currentLoad.incrementAndGet();
+        return true;
     }
 
-    public void decreaseLoad() {
-        if (currentLoad > 0) {
-            currentLoad--;
+    /**
+     * Counts one vehicle straight through against the per-minute rate, without holding
+     * a slot in the current load as an approved pass does.
+     */
+    public boolean tryAdmit() {
+        return status == LaneStatus.OPEN && throughput.tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Like {@link #tryAdmit} for a vehicle that passed at the given time in the past, e.g. a
+     * replayed camera read: counted against the per-minute rate at that time, on a limiter
+     * separate from the live one, so replays neither use up nor are refused by live capacity.
+     */
+    public boolean tryAdmitAt(long epochMillis) {
+        return status == LaneStatus.OPEN && replayThroughput.tryAcquire(TimeUnit.MILLISECONDS.toNanos(epochMillis));
+    }
+
+    /**
+     * Records that an admitted vehicle has left the lane.
+     */
+    public boolean release() {
+        while (true) {
+            int load = currentLoad.get();
+            if (load == 0) {
+                return false;
+            }
+            if (currentLoad.compareAndSet(load, load - 1)) {
+                return true;
+            }
         }
     }
 
+    public void increaseLoad() {
+        tryReserve();
+    }
+
+    public void decreaseLoad() {
+        release();
+    }
+
     @Override
     public String toString() {
         return String.format("GateLane{id=%d, laneNumber=%d, capacity=%d, status=%s, currentLoad=%d}",
-                id, laneNumber, capacityPerMinute, status, currentLoad);
+                id, laneNumber, capacityPerMinute, getStatus(), currentLoad.get());
     }
-}
\ No newline at end of file
+}
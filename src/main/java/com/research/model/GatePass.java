@@ -1,21 +1,23 @@
 package com.research.model;
 
+import com.research.util.EpochClock;
+
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class GatePass extends BaseEntity {
     private Vehicle vehicle;
     private GateLane lane;
     private PassDirection direction;
-    private PassStatus status;
-    private LocalDateTime passTime;
+    private final AtomicReference<PassStatus> status = new AtomicReference<>(PassStatus.PENDING);
+    private long passTimeMillis;
 
     public GatePass(int id, Vehicle vehicle, GateLane lane, PassDirection direction) {
         this.id = id;
         this.vehicle = vehicle;
         this.lane = lane;
         this.direction = direction;
-        this.status = PassStatus.PENDING;
-        this.passTime = LocalDateTime.now();
+        this.passTimeMillis = createdAtMillis;
     }
 
     // Getters and Setters
@@ -25,14 +27,24 @@ public class GatePass extends BaseEntity {
     public void setLane(GateLane lane) { this.lane = lane; }
     public PassDirection getDirection() { return direction; }
     public void setDirection(PassDirection direction) { this.direction = direction; }
-    public PassStatus getStatus() { return status; }
-    public void setStatus(PassStatus status) { this.status = status; }
-    public LocalDateTime getPassTime() { return passTime; }
-    public void setPassTime(LocalDateTime passTime) { this.passTime = passTime; }
+    public PassStatus getStatus() { return status.get(); }
+    public void setStatus(PassStatus status) { this.status.set(status); }
+    public LocalDateTime getPassTime() { return EpochClock.toLocalDateTime(passTimeMillis); }
+    public void setPassTime(LocalDateTime passTime) { this.passTimeMillis = EpochClock.toEpochMillis(passTime); }
+    public long getPassTimeMillis() { return passTimeMillis; }
+    public void setPassTimeMillis(long passTimeMillis) { this.passTimeMillis = passTimeMillis; }
+
+    /**
+     * Moves the pass to {@code next} only if it is still in {@code expected},
+     * so two terminals cannot both act on the same pass.
+     */
+    public boolean transitionStatus(PassStatus expected, PassStatus next) {
+        return status.compareAndSet(expected, next);
+    }
 
     @Override
     public String toString() {
         return String.format("GatePass{id=%d, vehicle='%s', lane=%d, direction=%s, status=%s, time=%s}",
-                id, vehicle.getPlateNumber(), lane.getLaneNumber(), direction, status, passTime);
+                id, vehicle.getPlateNumber(), lane.getLaneNumber(), direction, status.get(), getPassTime());
     }
 }
\ No newline at end of file
@@ -13,6 +13,8 @@ public class VisitReservation extends BaseEntity {
     private LocalTime visitTime;
     private int numberOfPassengers;
     private boolean isCancelled;
+    // Set once the access window has closed; expired reservations leave the active set
+    private volatile boolean expired;
 
     public VisitReservation(int id, String visitorName, String vehiclePlate,
                             LocalDate visitDate, LocalTime visitTime, int numberOfPassengers) {
@@ -38,6 +40,8 @@ public class VisitReservation extends BaseEntity {
     public void setNumberOfPassengers(int numberOfPassengers) { this.numberOfPassengers = numberOfPassengers; }
     public boolean isCancelled() { return isCancelled; }
     public void setCancelled(boolean cancelled) { isCancelled = cancelled; }
+    public boolean isExpired() { return expired; }
+    public void setExpired(boolean expired) { this.expired = expired; }
 
     public boolean isValidForAccess(LocalDateTime checkTime) {
         if (isCancelled) return false;
@@ -0,0 +1,11 @@
+package com.research.persistence;
+
+import com.research.model.PassDirection;
+import com.research.model.PassStatus;
+
+/**
+ * A closed gate pass as stored in the {@link PassArchive}; times are epoch seconds.
+ */
+public record ArchivedPass(int id, int vehicleId, int laneId, PassDirection direction, PassStatus status,
+                           long passTimeEpochSecond, long closedAtEpochSecond) {
+}
@@ -0,0 +1,40 @@
+package com.research.persistence;
+
+import com.research.model.BaseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact binary form of an entity for the write-ahead log and snapshots.
+ * References to other entities are written as ids and resolved when read back.
+ */
+public interface EntityCodec<T extends BaseEntity> {
+    void write(T entity, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    default byte[] encode(T entity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(entity, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    default T decode(byte[] payload) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.research.persistence;
+
+import com.research.model.BaseEntity;
+import com.research.model.GateLane;
+import com.research.model.GatePass;
+import com.research.model.LaneStatus;
+import com.research.model.PassDirection;
+import com.research.model.PassStatus;
+import com.research.model.Resident;
+import com.research.model.Vehicle;
+import com.research.model.VehicleType;
+import com.research.model.VisitReservation;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.ResidentRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VehicleTypeRepository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Codecs for the gate entities. Codecs that reference other entities look them up
+ * in the given repositories when reading, so those repositories must be restored first.
+ */
+public final class EntityCodecs {
+    private EntityCodecs() {
+    }
+
+    public static EntityCodec<Resident> resident() {
+        return new EntityCodec<>() {
+            @Override
+            public void write(Resident resident, DataOutput out) throws IOException {
+                writeHeader(resident, out);
+                writeString(resident.getFullName(), out);
+                writeString(resident.getEmail(), out);
+                writeString(resident.getPhone(), out);
+                writeString(resident.getUnitNumber(), out);
+            }
+
+            @Override
+            public Resident read(DataInput in) throws IOException {
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                Resident resident = new Resident(id, readString(in), readString(in), readString(in), readString(in));
+                return withTimes(resident, createdAt, updatedAt);
+            }
+        };
+    }
+
+    public static EntityCodec<VehicleType> vehicleType() {
+        return new EntityCodec<>() {
+            @Override
+            public void write(VehicleType type, DataOutput out) throws IOException {
+                writeHeader(type, out);
+                writeString(type.getName(), out);
+                writeString(type.getDescription(), out);
+            }
+
+            @Override
+            public VehicleType read(DataInput in) throws IOException {
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                return withTimes(new VehicleType(id, readString(in), readString(in)), createdAt, updatedAt);
+            }
+        };
+    }
+
+    public static EntityCodec<Vehicle> vehicle(ResidentRepository residents, VehicleTypeRepository types) {
+        return new EntityCodec<>() {
+            @Override
+            public void write(Vehicle vehicle, DataOutput out) throws IOException {
+                writeHeader(vehicle, out);
+                writeString(vehicle.getPlateNumber(), out);
+                out.writeInt(vehicle.getOwner() == null ? 0 : vehicle.getOwner().getId());
+                out.writeInt(vehicle.getVehicleType() == null ? 0 : vehicle.getVehicleType().getId());
+                out.writeBoolean(vehicle.isAllowed());
+            }
+
+            @Override
+            public Vehicle read(DataInput in) throws IOException {
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                String plate = readString(in);
+                Resident owner = residents.findById(in.readInt()).orElse(null);
+                VehicleType type = types.findById(in.readInt()).orElse(null);
+                return withTimes(new Vehicle(id, plate, owner, type, in.readBoolean()), createdAt, updatedAt);
+            }
+        };
+    }
+
+    /**
+     * Load and admission history are runtime state and are not persisted;
+     * a restored lane starts with an empty window.
+     */
+    public static EntityCodec<GateLane> gateLane() {
+        return new EntityCodec<>() {
+            @Override
+            public void write(GateLane lane, DataOutput out) throws IOException {
+                writeHeader(lane, out);
+                out.writeInt(lane.getLaneNumber());
+                out.writeInt(lane.getCapacityPerMinute());
+                out.writeByte(lane.isOpen() ? LaneStatus.OPEN.ordinal() : lane.getStatus().ordinal());
+            }
+
+            @Override
+            public GateLane read(DataInput in) throws IOException {
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                GateLane lane = new GateLane(id, in.readInt(), in.readInt(), LaneStatus.values()[in.readByte()]);
+                return withTimes(lane, createdAt, updatedAt);
+            }
+        };
+    }
+
+    /**
+     * Visitor passes reference an unregistered vehicle (id 0), so the plate is
+     * stored alongside the vehicle id to rebuild it.
+     */
+    public static EntityCodec<GatePass> gatePass(VehicleRepository vehicles, GateLaneRepository lanes) {
+        return new EntityCodec<>() {
+            @Override
+            public void write(GatePass pass, DataOutput out) throws IOException {
+                writeHeader(pass, out);
+                out.writeInt(pass.getVehicle().getId());
+                writeString(pass.getVehicle().getPlateNumber(), out);
+                out.writeInt(pass.getLane().getId());
+                out.writeByte(pass.getDirection().ordinal());
+                out.writeByte(pass.getStatus().ordinal());
+                out.writeLong(pass.getPassTimeMillis());
+            }
+
+            @Override
+            public GatePass read(DataInput in) throws IOException {
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                int vehicleId = in.readInt();
+                String plate = readString(in);
+                Vehicle vehicle = vehicles.findById(vehicleId)
+                        .orElseGet(() -> new Vehicle(0, plate, null, null, true));
+                int laneId = in.readInt();
+                GateLane lane = lanes.findById(laneId)
+                        .orElseThrow(() -> new IOException("Gate pass " + id + " references missing lane " + laneId));
+                GatePass pass = new GatePass(id, vehicle, lane, PassDirection.values()[in.readByte()]);
+                pass.setStatus(PassStatus.values()[in.readByte()]);
+                pass.setPassTimeMillis(in.readLong());
+                return withTimes(pass, createdAt, updatedAt);
+            }
+        };
+    }
+
+    public static EntityCodec<VisitReservation> visitReservation() {
+        return new EntityCodec<>() {
+            @Override
+            public void write(VisitReservation reservation, DataOutput out) throws IOException {
+                writeHeader(reservation, out);
+                writeString(reservation.getVisitorName(), out);
+                writeString(reservation.getVehiclePlate(), out);
+                out.writeLong(reservation.getVisitDate().toEpochDay());
+                out.writeInt(reservation.getVisitTime().toSecondOfDay());
+                out.writeInt(reservation.getNumberOfPassengers());
+                out.writeBoolean(reservation.isCancelled());
+                out.writeBoolean(reservation.isExpired());
+            }
+
+            @Override
+            public VisitReservation read(DataInput in) throws IOException {
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                VisitReservation reservation = new VisitReservation(id, readString(in), readString(in),
+                        LocalDate.ofEpochDay(in.readLong()), LocalTime.ofSecondOfDay(in.readInt()), in.readInt());
+                reservation.setCancelled(in.readBoolean());
+                reservation.setExpired(in.readBoolean());
+                return withTimes(reservation, createdAt, updatedAt);
+            }
+        };
+    }
+
+    private static void writeHeader(BaseEntity entity, DataOutput out) throws IOException {
+        out.writeInt(entity.getId());
+        out.writeLong(entity.getCreatedAtMillis());
+        out.writeLong(entity.getUpdatedAtMillis());
+    }
+
+    private static <T extends BaseEntity> T withTimes(T entity, long createdAtMillis, long updatedAtMillis) {
+        entity.setCreatedAtMillis(createdAtMillis);
+        entity.setUpdatedAtMillis(updatedAtMillis);
+        return entity;
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.research.persistence;
+
+/**
+ * When the write-ahead log forces appended records to stable storage.
+ */
+public enum FsyncPolicy {
+    /** Every append waits for an fsync; concurrent appends share one (group commit). */
+    ALWAYS,
+    /** Appends return once written to the OS; a background task fsyncs at a fixed interval. */
+    INTERVAL,
+    /** Appends return once written to the OS; fsync only on close. */
+    NEVER
+}
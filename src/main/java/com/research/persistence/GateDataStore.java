@@ -0,0 +1,127 @@
+package com.research.persistence;
+
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.InMemoryRepository;
+import com.research.repository.ResidentRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VehicleTypeRepository;
+import com.research.repository.VisitReservationRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes the gate repositories durable: one write-ahead log per repository under a data
+ * directory, replayed in dependency order (residents and vehicle types before vehicles,
+ * vehicles and lanes before passes) so references resolve to the restored entities.
+ * Periodic snapshots keep startup proportional to the data, not to its history, and
+ * closed passes move to a memory-mapped {@link PassArchive} instead of staying on the heap.
+ */
+public class GateDataStore implements AutoCloseable {
+    private final Path dataDirectory;
+    private final FsyncPolicy fsyncPolicy;
+    private final List<WriteAheadLog> logs = new ArrayList<>();
+    private final List<InMemoryRepository<?>> repositories = new ArrayList<>();
+    private ScheduledExecutorService snapshotTask;
+    private PassArchive passArchive;
+
+    public GateDataStore(Path dataDirectory, FsyncPolicy fsyncPolicy) {
+        this.dataDirectory = dataDirectory;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Restores the repositories from disk and logs their writes from now on.
+     * Must run before any service reads from them.
+     */
+    public void attach(ResidentRepository residents, VehicleTypeRepository vehicleTypes,
+                       VehicleRepository vehicles, GateLaneRepository lanes,
+                       GatePassRepository passes, VisitReservationRepository reservations) throws IOException {
+        residents.attachLog(open("residents"), EntityCodecs.resident());
+        vehicleTypes.attachLog(open("vehicle-types"), EntityCodecs.vehicleType());
+        vehicles.attachLog(open("vehicles"), EntityCodecs.vehicle(residents, vehicleTypes));
+        lanes.attachLog(open("lanes"), EntityCodecs.gateLane());
+        passes.attachLog(open("passes"), EntityCodecs.gatePass(vehicles, lanes));
+        reservations.attachLog(open("reservations"), EntityCodecs.visitReservation());
+        passArchive = PassArchive.open(dataDirectory.resolve("pass-archive.dat"), fsyncPolicy);
+        passes.attachArchive(passArchive);
+        repositories.addAll(List.of(residents, vehicleTypes, vehicles, lanes, passes, reservations));
+    }
+
+    /**
+     * Snapshots every attached repository and truncates the logs behind the snapshots.
+     */
+    public void snapshotAll() throws IOException {
+        for (InMemoryRepository<?> repository : repositories) {
+            repository.snapshot();
+        }
+    }
+
+    /**
+     * Takes snapshots in the background at a fixed interval; writers are never stopped.
+     */
+    public synchronized void startSnapshots(Duration interval) {
+        if (snapshotTask != null) {
+            return;
+        }
+        snapshotTask = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gate-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        snapshotTask.scheduleWithFixedDelay(() -> {
+            try {
+                snapshotAll();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private WriteAheadLog open(String name) throws IOException {
+        WriteAheadLog log = WriteAheadLog.open(dataDirectory.resolve(name), fsyncPolicy);
+        logs.add(log);
+        return log;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (snapshotTask != null) {
+                snapshotTask.shutdown();
+                try {
+                    // Let a snapshot in progress finish before its log is closed
+                    snapshotTask.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        IOException failure = null;
+        for (WriteAheadLog log : logs) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (passArchive != null) {
+            try {
+                passArchive.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
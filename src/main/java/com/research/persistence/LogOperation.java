@@ -0,0 +1,24 @@
+package com.research.persistence;
+
+public enum LogOperation {
+    SAVE((byte) 1), UPDATE((byte) 2), DELETE((byte) 3);
+
+    private final byte code;
+
+    LogOperation(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static LogOperation fromCode(byte code) {
+        for (LogOperation operation : values()) {
+            if (operation.code == code) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown log operation code " + code);
+    }
+}
@@ -0,0 +1,7 @@
+package com.research.persistence;
+
+/**
+ * One write-ahead log entry. DELETE records carry an empty payload.
+ */
+public record LogRecord(long lsn, LogOperation operation, int entityId, byte[] payload) {
+}
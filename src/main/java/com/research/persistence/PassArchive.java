@@ -0,0 +1,387 @@
+package com.research.persistence;
+
+import com.research.model.GatePass;
+import com.research.model.PassDirection;
+import com.research.model.PassStatus;
+import com.research.util.EpochClock;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Append-only file of closed (completed or denied) gate passes, in fixed-width records
+ * read and written through memory-mapped regions.
+ * <p>
+ * Layout: a 64-byte header ({@code [int magic][int recordBytes][long count]}) followed by
+ * 32-byte records {@code [int id][int vehicleId][int laneId][byte direction][byte status]
+ * [short unused][long passTime][long closedAt]}, times in epoch seconds. The count is
+ * written after the record it covers, so a record is visible to readers and to a
+ * restart only once complete. Records are forced to disk as the write-ahead log's
+ * {@link FsyncPolicy} says; under INTERVAL and NEVER a crash may lose the last records,
+ * and trailing records the OS never wrote back (id 0) are dropped on open.
+ * <p>
+ * Lane range queries binary-search a per-lane timeline of record numbers ordered by pass
+ * time, kept on the heap and rebuilt on open; other queries scan the mapped records in
+ * place without materializing them.
+ */
+public class PassArchive implements AutoCloseable {
+    private static final int MAGIC = 0x47504131;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 32;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORDS_PER_REGION = 1 << 20;
+    private static final long REGION_BYTES = (long) RECORDS_PER_REGION * RECORD_BYTES;
+
+    private static final int ID = 0;
+    private static final int VEHICLE_ID = 4;
+    private static final int LANE_ID = 8;
+    private static final int DIRECTION = 12;
+    private static final int STATUS = 13;
+    private static final int PASS_TIME = 16;
+    private static final int CLOSED_AT = 24;
+
+    private static final PassDirection[] DIRECTIONS = PassDirection.values();
+    private static final PassStatus[] STATUSES = PassStatus.values();
+
+    private final Path file;
+    private final FsyncPolicy fsyncPolicy;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Map<Integer, LaneTimeline> timelinesByLane = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService fsyncTask;
+    // Grows under the append lock before count moves past it, so readers read count first
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private volatile long count;
+    private long syncedCount;
+
+    private PassArchive(Path file, FsyncPolicy fsyncPolicy, Duration fsyncInterval) throws IOException {
+        this.file = file;
+        this.fsyncPolicy = fsyncPolicy;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean fresh = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (fresh) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, RECORD_BYTES);
+            header.putLong(COUNT_OFFSET, 0);
+            header.force();
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != RECORD_BYTES) {
+            channel.close();
+            throw new IOException("Not a gate pass archive: " + file);
+        }
+        long stored = header.getLong(COUNT_OFFSET);
+        ensureRegion(regionOf(Math.max(0, stored - 1)));
+        while (stored > 0 && regions[regionOf(stored - 1)].getInt(offsetInRegion(stored - 1) + ID) == 0) {
+            stored--;
+        }
+        this.count = stored;
+        this.syncedCount = stored;
+        for (long i = 0; i < stored; i++) {
+            MappedByteBuffer region = regions[regionOf(i)];
+            int offset = offsetInRegion(i);
+            timeline(region.getInt(offset + LANE_ID)).add(region.getLong(offset + PASS_TIME), i);
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            fsyncTask = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "archive-fsync-" + file.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = fsyncInterval.toMillis();
+            fsyncTask.scheduleWithFixedDelay(this::syncQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            fsyncTask = null;
+        }
+    }
+
+    public static PassArchive open(Path file) throws IOException {
+        return open(file, FsyncPolicy.ALWAYS);
+    }
+
+    public static PassArchive open(Path file, FsyncPolicy fsyncPolicy) throws IOException {
+        return open(file, fsyncPolicy, WriteAheadLog.DEFAULT_FSYNC_INTERVAL);
+    }
+
+    public static PassArchive open(Path file, FsyncPolicy fsyncPolicy, Duration fsyncInterval) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new PassArchive(file, fsyncPolicy, fsyncInterval);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Appends a closed pass; under {@link FsyncPolicy#ALWAYS} the record and the new count
+     * are forced to disk before returning.
+     */
+    public void append(GatePass pass) throws IOException {
+        int laneId = pass.getLane().getId();
+        long passTime = pass.getPassTimeMillis() / 1000;
+        appendLock.lock();
+        try {
+            long index = count;
+            MappedByteBuffer region = ensureRegion(regionOf(index));
+            int offset = offsetInRegion(index);
+            region.putInt(offset + ID, pass.getId());
+            region.putInt(offset + VEHICLE_ID, pass.getVehicle().getId());
+            region.putInt(offset + LANE_ID, laneId);
+            region.put(offset + DIRECTION, (byte) pass.getDirection().ordinal());
+            region.put(offset + STATUS, (byte) pass.getStatus().ordinal());
+            region.putLong(offset + PASS_TIME, passTime);
+            region.putLong(offset + CLOSED_AT, pass.getUpdatedAtMillis() / 1000);
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                region.force(offset, RECORD_BYTES);
+            }
+            header.putLong(COUNT_OFFSET, index + 1);
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                header.force(COUNT_OFFSET, Long.BYTES);
+            }
+            count = index + 1;
+            timeline(laneId).add(passTime, index);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Archived passes through the lane with pass time in [start, end].
+     */
+    public int countByLaneIdBetween(int laneId, LocalDateTime start, LocalDateTime end) {
+        LaneTimeline timeline = timelinesByLane.get(laneId);
+        return timeline == null ? 0 : timeline.count(epochSecond(start), epochSecond(end));
+    }
+
+    public List<ArchivedPass> findByVehicleId(int vehicleId) {
+        List<ArchivedPass> result = new ArrayList<>();
+        long total = count;
+        MappedByteBuffer[] mapped = regions;
+        for (long i = 0; i < total; i++) {
+            MappedByteBuffer region = mapped[regionOf(i)];
+            int offset = offsetInRegion(i);
+            if (region.getInt(offset + VEHICLE_ID) == vehicleId) {
+                result.add(read(region, offset));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Archived passes through the lane, oldest first.
+     */
+    public List<ArchivedPass> findByLaneId(int laneId) {
+        return findByLaneIdBetween(laneId, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Archived passes through the lane with pass time in [start, end], oldest first.
+     */
+    public List<ArchivedPass> findByLaneIdBetween(int laneId, LocalDateTime start, LocalDateTime end) {
+        return findByLaneIdBetween(laneId, epochSecond(start), epochSecond(end));
+    }
+
+    private List<ArchivedPass> findByLaneIdBetween(int laneId, long fromEpochSecond, long toEpochSecond) {
+        LaneTimeline timeline = timelinesByLane.get(laneId);
+        if (timeline == null) {
+            return List.of();
+        }
+        MappedByteBuffer[] mapped = regions;
+        List<ArchivedPass> result = new ArrayList<>();
+        for (long index : timeline.records(fromEpochSecond, toEpochSecond)) {
+            result.add(read(mapped[regionOf(index)], offsetInRegion(index)));
+        }
+        return result;
+    }
+
+    public void forEach(Consumer<ArchivedPass> consumer) {
+        long total = count;
+        MappedByteBuffer[] mapped = regions;
+        for (long i = 0; i < total; i++) {
+            consumer.accept(read(mapped[regionOf(i)], offsetInRegion(i)));
+        }
+    }
+
+    /**
+     * Feeds the id of every archived pass to the consumer, in archive order.
+     */
+    public void forEachId(IntConsumer consumer) {
+        long total = count;
+        MappedByteBuffer[] mapped = regions;
+        for (long i = 0; i < total; i++) {
+            consumer.accept(mapped[regionOf(i)].getInt(offsetInRegion(i) + ID));
+        }
+    }
+
+    /**
+     * Forces every record appended so far, and the count covering them, to disk.
+     */
+    public void sync() {
+        long total = count;
+        long from;
+        appendLock.lock();
+        try {
+            from = syncedCount;
+            syncedCount = total;
+        } finally {
+            appendLock.unlock();
+        }
+        MappedByteBuffer[] mapped = regions;
+        for (int r = regionOf(from); total > from && r <= regionOf(total - 1); r++) {
+            mapped[r].force();
+        }
+        header.force();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            System.err.println("Pass archive fsync failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fsyncTask != null) {
+            fsyncTask.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+            header.force();
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private LaneTimeline timeline(int laneId) {
+        return timelinesByLane.computeIfAbsent(laneId, id -> new LaneTimeline());
+    }
+
+    private MappedByteBuffer ensureRegion(int regionIndex) throws IOException {
+        MappedByteBuffer[] mapped = regions;
+        if (regionIndex < mapped.length) {
+            return mapped[regionIndex];
+        }
+        MappedByteBuffer[] grown = new MappedByteBuffer[regionIndex + 1];
+        System.arraycopy(mapped, 0, grown, 0, mapped.length);
+        for (int i = mapped.length; i <= regionIndex; i++) {
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * REGION_BYTES, REGION_BYTES);
+        }
+        regions = grown;
+        return grown[regionIndex];
+    }
+
+    private static ArchivedPass read(MappedByteBuffer region, int offset) {
+        return new ArchivedPass(region.getInt(offset + ID), region.getInt(offset + VEHICLE_ID),
+                region.getInt(offset + LANE_ID), DIRECTIONS[region.get(offset + DIRECTION)],
+                STATUSES[region.get(offset + STATUS)], region.getLong(offset + PASS_TIME),
+                region.getLong(offset + CLOSED_AT));
+    }
+
+    private static int regionOf(long index) {
+        return (int) (index / RECORDS_PER_REGION);
+    }
+
+    private static int offsetInRegion(long index) {
+        return (int) (index % RECORDS_PER_REGION) * RECORD_BYTES;
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return EpochClock.toEpochMillis(time) / 1000;
+    }
+
+    /**
+     * Record numbers of one lane's passes ordered by pass time. Passes are closed roughly
+     * in pass-time order, so an insert lands at or near the end and shifts little.
+     */
+    private static final class LaneTimeline {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] passTimes = new long[16];
+        private long[] records = new long[16];
+        private int size;
+
+        void add(long passTime, long record) {
+            lock.writeLock().lock();
+            try {
+                if (size == passTimes.length) {
+                    passTimes = Arrays.copyOf(passTimes, size * 2);
+                    records = Arrays.copyOf(records, size * 2);
+                }
+                int at = firstAfter(passTime);
+                System.arraycopy(passTimes, at, passTimes, at + 1, size - at);
+                System.arraycopy(records, at, records, at + 1, size - at);
+                passTimes[at] = passTime;
+                records[at] = record;
+                size++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int count(long from, long to) {
+            lock.readLock().lock();
+            try {
+                return Math.max(0, firstAfter(to) - firstAtOrAfter(from));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long[] records(long from, long to) {
+            lock.readLock().lock();
+            try {
+                int first = firstAtOrAfter(from);
+                return Arrays.copyOfRange(records, first, Math.max(first, firstAfter(to)));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int firstAtOrAfter(long passTime) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (passTimes[mid] < passTime) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstAfter(long passTime) {
+            return passTime == Long.MAX_VALUE ? size : firstAtOrAfter(passTime + 1);
+        }
+    }
+}
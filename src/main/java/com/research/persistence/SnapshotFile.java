@@ -0,0 +1,173 @@
+package com.research.persistence;
+
+import com.research.model.BaseEntity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of one repository, stored next to its write-ahead log as
+ * {@code snapshot-<lsn>.bin}. Replaying the log from {@code lsn} on top of the snapshot
+ * restores the repository.
+ * <p>
+ * Layout: {@code [int magic][long lsn][int idCounter]}, then {@code [int length][payload]}
+ * per entity, a {@code -1} terminator and a CRC32 over everything before it. Files are
+ * written to a temporary name and moved into place, so a partial snapshot is never picked up.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x47534e31;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path path;
+    private final long lsn;
+
+    private SnapshotFile(Path path, long lsn) {
+        this.path = path;
+        this.lsn = lsn;
+    }
+
+    /**
+     * First LSN not covered by this snapshot.
+     */
+    public long getLsn() {
+        return lsn;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public static <T extends BaseEntity> SnapshotFile write(Path directory, long lsn, int idCounter,
+                                                           Iterable<T> entities, EntityCodec<T> codec)
+            throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+            out.writeInt(MAGIC);
+            out.writeLong(lsn);
+            out.writeInt(idCounter);
+            for (T entity : entities) {
+                byte[] payload = codec.encode(entity);
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+            out.writeInt(-1);
+            out.writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new SnapshotFile(target, lsn);
+    }
+
+    /**
+     * Newest snapshot in the directory that reads back intact, skipping damaged ones only
+     * while the log still reaches back to the snapshot that replaces them. Fails when it
+     * does not: the log before {@code firstLoggedLsn} is gone, so restoring from an older
+     * snapshot, or from no snapshot at all, would silently drop committed writes.
+     */
+    public static Optional<SnapshotFile> latest(Path directory, long firstLoggedLsn) throws IOException {
+        List<SnapshotFile> snapshots = list(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            SnapshotFile snapshot = snapshots.get(i);
+            if (snapshot.lsn < firstLoggedLsn) {
+                break;
+            }
+            if (snapshot.verify()) {
+                return Optional.of(snapshot);
+            }
+        }
+        // LSNs start at 1; a log still holding its first record can be replayed whole
+        if (firstLoggedLsn > 1) {
+            throw new IOException("No intact snapshot in " + directory + " from which the log, starting at LSN "
+                    + firstLoggedLsn + ", can be replayed");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Feeds every entity payload to the consumer and returns the stored id counter.
+     */
+    public int read(Consumer<byte[]> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            in.readLong();
+            int idCounter = in.readInt();
+            int length;
+            while ((length = in.readInt()) >= 0) {
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                consumer.accept(payload);
+            }
+            return idCounter;
+        }
+    }
+
+    /**
+     * Deletes every snapshot in the directory older than this one.
+     */
+    public void deleteOlder() throws IOException {
+        for (SnapshotFile snapshot : list(path.getParent())) {
+            if (snapshot.lsn < lsn) {
+                Files.deleteIfExists(snapshot.path);
+            }
+        }
+    }
+
+    private boolean verify() {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), crc))) {
+            if (in.readInt() != MAGIC) {
+                return false;
+            }
+            in.readLong();
+            in.readInt();
+            int length;
+            while ((length = in.readInt()) >= 0) {
+                in.skipNBytes(length);
+            }
+            int expected = (int) crc.getValue();
+            return in.readInt() == expected;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static List<SnapshotFile> list(Path directory) throws IOException {
+        List<SnapshotFile> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    long lsn = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                    snapshots.add(new SnapshotFile(file, lsn));
+                }
+            });
+        }
+        snapshots.sort((a, b) -> Long.compare(a.lsn, b.lsn));
+        return snapshots;
+    }
+}
@@ -0,0 +1,413 @@
+package com.research.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of repository writes, split into segment files named after the
+ * sequence number (LSN) of their first record.
+ * <p>
+ * Record layout: {@code [int length][long lsn][byte op][int entityId][payload][int crc32]},
+ * where length covers lsn through payload and the checksum covers the same bytes.
+ * <p>
+ * Appends use group commit: callers queue their encoded record, and whichever caller finds
+ * no write in progress becomes the leader, writes every queued record with one gathering
+ * write and, under {@link FsyncPolicy#ALWAYS}, one fsync, then wakes the callers it covered.
+ * A torn record at the end of the last segment (a crash mid-write) is truncated on open.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(200);
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int BODY_HEADER_BYTES = Long.BYTES + 1 + Integer.BYTES;
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long segmentBytes;
+    private final ScheduledExecutorService fsyncTask;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long nextLsn;
+    private long writtenLsn;
+    private boolean writing;
+    private IOException failure;
+    private volatile boolean closed;
+
+    // Only touched by the current leader, or under the lock
+    private volatile FileChannel channel;
+    private long segmentSize;
+
+    private WriteAheadLog(Path directory, FsyncPolicy fsyncPolicy, long segmentBytes, Duration fsyncInterval)
+            throws IOException {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        recoverTail();
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            fsyncTask = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-fsync-" + directory.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = fsyncInterval.toMillis();
+            fsyncTask.scheduleWithFixedDelay(this::syncQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            fsyncTask = null;
+        }
+    }
+
+    public static WriteAheadLog open(Path directory, FsyncPolicy fsyncPolicy) throws IOException {
+        return open(directory, fsyncPolicy, DEFAULT_SEGMENT_BYTES, DEFAULT_FSYNC_INTERVAL);
+    }
+
+    public static WriteAheadLog open(Path directory, FsyncPolicy fsyncPolicy, long segmentBytes,
+                                     Duration fsyncInterval) throws IOException {
+        return new WriteAheadLog(directory, fsyncPolicy, segmentBytes, fsyncInterval);
+    }
+
+    /**
+     * Appends a record and returns its LSN once it is written, and fsynced if the policy is
+     * {@link FsyncPolicy#ALWAYS}.
+     */
+    public long append(LogOperation operation, int entityId, byte[] payload) {
+        return appendAll(operation, new int[]{entityId}, new byte[][]{payload});
+    }
+
+    /**
+     * Appends one record per entity id under consecutive LSNs, written together and covered
+     * by a single fsync, and returns the last LSN once they are durable as for {@link #append}.
+     */
+    public long appendAll(LogOperation operation, int[] entityIds, byte[][] payloads) {
+        if (entityIds.length != payloads.length) {
+            throw new IllegalArgumentException("Expected one payload per entity id");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log " + directory + " is closed");
+            }
+            for (int i = 0; i < entityIds.length; i++) {
+                pending.add(encode(nextLsn++, operation, entityIds[i], payloads[i]));
+            }
+            long lsn = nextLsn - 1;
+            while (writtenLsn < lsn) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Write-ahead log append failed", failure);
+                }
+                if (writing) {
+                    written.awaitUninterruptibly();
+                } else {
+                    writePendingAsLeader();
+                }
+            }
+            return lsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held; releases it for the duration of the I/O
+    private void writePendingAsLeader() {
+        List<ByteBuffer> batch = pending;
+        pending = new ArrayList<>();
+        long lastLsn = nextLsn - 1;
+        long firstLsn = lastLsn - batch.size() + 1;
+        writing = true;
+        lock.unlock();
+        IOException error = null;
+        try {
+            writeBatch(batch, firstLsn);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+            writing = false;
+            if (error != null) {
+                failure = error;
+            } else {
+                writtenLsn = lastLsn;
+            }
+            written.signalAll();
+        }
+    }
+
+    private void writeBatch(List<ByteBuffer> batch, long firstLsn) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            rollSegment(firstLsn);
+        }
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        segmentSize += remaining;
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Starts a new segment at the next LSN so that everything before it is in closed segments.
+     * Returns the first LSN of the new segment.
+     */
+    public long rollSegment() {
+        lock.lock();
+        try {
+            while (writing) {
+                written.awaitUninterruptibly();
+            }
+            if (segmentSize > 0) {
+                rollSegment(nextLsn);
+            }
+            return nextLsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollSegment(long firstLsn) throws IOException {
+        FileChannel previous = channel;
+        previous.force(false);
+        channel = openSegment(firstLsn);
+        segmentSize = 0;
+        previous.close();
+    }
+
+    /**
+     * Deletes closed segments whose records all precede {@code lsn}.
+     */
+    public int deleteSegmentsBefore(long lsn) throws IOException {
+        List<Long> segments = listSegments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1) <= lsn) {
+                Files.deleteIfExists(segmentPath(segments.get(i)));
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Passes every record with an LSN of at least {@code fromLsn} to the consumer, in order.
+     */
+    public void replay(long fromLsn, Consumer<LogRecord> consumer) throws IOException {
+        List<Long> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && segments.get(i + 1) <= fromLsn) {
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(segmentPath(segments.get(i)))))) {
+                LogRecord record;
+                while ((record = readRecord(in)) != null) {
+                    if (record.lsn() >= fromLsn) {
+                        consumer.accept(record);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * LSN of the oldest record still held; records before it were deleted with their segments.
+     */
+    public long firstLsn() throws IOException {
+        List<Long> segments = listSegments();
+        return segments.isEmpty() ? nextLsn() : segments.get(0);
+    }
+
+    /**
+     * LSN the next append will get.
+     */
+    public long nextLsn() {
+        lock.lock();
+        try {
+            return nextLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Forces everything written so far to stable storage.
+     */
+    public void sync() throws IOException {
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Rolled over meanwhile; the old segment was forced before it was closed
+            if (closed) {
+                throw e;
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Write-ahead log fsync failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (writing || !pending.isEmpty()) {
+                if (writing) {
+                    written.awaitUninterruptibly();
+                } else {
+                    writePendingAsLeader();
+                }
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        if (fsyncTask != null) {
+            fsyncTask.shutdownNow();
+        }
+        channel.force(false);
+        channel.close();
+    }
+
+    // Finds the end of the log, truncating a torn last record, and opens the last segment for appends
+    private void recoverTail() throws IOException {
+        List<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            nextLsn = 1;
+            channel = openSegment(1);
+            segmentSize = 0;
+            writtenLsn = 0;
+            return;
+        }
+        long firstLsn = segments.get(segments.size() - 1);
+        Path last = segmentPath(firstLsn);
+        long validBytes = 0;
+        long lastLsn = firstLsn - 1;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(last)))) {
+            LogRecord record;
+            while ((record = readRecord(in)) != null) {
+                validBytes += recordBytes(record.payload().length);
+                lastLsn = record.lsn();
+            }
+        }
+        channel = FileChannel.open(last, StandardOpenOption.WRITE);
+        if (channel.size() > validBytes) {
+            channel.truncate(validBytes);
+        }
+        channel.position(validBytes);
+        segmentSize = validBytes;
+        nextLsn = lastLsn + 1;
+        writtenLsn = lastLsn;
+    }
+
+    private FileChannel openSegment(long firstLsn) throws IOException {
+        return FileChannel.open(segmentPath(firstLsn),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private Path segmentPath(long firstLsn) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int recordBytes(int payloadLength) {
+        return Integer.BYTES + BODY_HEADER_BYTES + payloadLength + Integer.BYTES;
+    }
+
+    private static ByteBuffer encode(long lsn, LogOperation operation, int entityId, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(recordBytes(payload.length));
+        buffer.putInt(BODY_HEADER_BYTES + payload.length);
+        buffer.putLong(lsn);
+        buffer.put(operation.getCode());
+        buffer.putInt(entityId);
+        buffer.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), Integer.BYTES, BODY_HEADER_BYTES + payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    // Returns null at the end of the segment or at a torn or corrupt record
+    private static LogRecord readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length < BODY_HEADER_BYTES || length > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            int storedCrc = in.readInt();
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != storedCrc) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            long lsn = buffer.getLong();
+            LogOperation operation = LogOperation.fromCode(buffer.get());
+            int entityId = buffer.getInt();
+            byte[] payload = new byte[length - BODY_HEADER_BYTES];
+            buffer.get(payload);
+            return new LogRecord(lsn, operation, entityId, payload);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.research.repository;
 
 import com.research.model.BaseEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
 public interface BaseRepository<T extends BaseEntity> {
     T save(T entity);
+    List<T> saveAll(Collection<T> entities);
     Optional<T> findById(int id);
     List<T> findAll();
     T update(T entity);
@@ -0,0 +1,53 @@
+package com.research.repository;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Array indexed directly by entity id, for lookups by primitive id without boxing or
+ * hashing. Ids from 1 up to {@code maxId} are covered; larger ids are not stored and
+ * callers fall back to the repository map. Reads are lock-free; writes are serialized.
+ */
+class DenseIdTable<T> {
+    private final int maxId;
+    private volatile AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(64);
+
+    DenseIdTable(int maxId) {
+        this.maxId = maxId;
+    }
+
+    boolean covers(int id) {
+        return id > 0 && id <= maxId;
+    }
+
+    T get(int id) {
+        AtomicReferenceArray<T> current = slots;
+        return id >= 0 && id < current.length() ? current.get(id) : null;
+    }
+
+    synchronized void put(int id, T entity) {
+        if (!covers(id)) {
+            return;
+        }
+        AtomicReferenceArray<T> current = slots;
+        if (id >= current.length()) {
+            int length = current.length();
+            while (length <= id) {
+                length = (int) Math.min((long) length * 2, (long) maxId + 1);
+            }
+            AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(length);
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            slots = grown;
+            current = grown;
+        }
+        current.set(id, entity);
+    }
+
+    synchronized void remove(int id) {
+        AtomicReferenceArray<T> current = slots;
+        if (id >= 0 && id < current.length()) {
+            current.set(id, null);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.research.repository;
+
+import com.research.model.BaseEntity;
+
+/**
+ * Index maintained by {@link InMemoryRepository} under the entity's write lock.
+ */
+interface EntityIndex<T extends BaseEntity> {
+    String getName();
+
+    /**
+     * Indexes the entity under its current keys, replacing any keys it was indexed under before.
+     * Returns an action that puts the previous keys back if the surrounding write is aborted.
+     */
+    Runnable put(T entity, String entityName);
+
+    void remove(T entity);
+}
@@ -7,15 +7,24 @@ import java.util.List;
 import java.util.Optional;
 
 public class GateLaneRepository extends InMemoryRepository<GateLane> {
+    private static final String LANE_NUMBER_INDEX = "laneNumber";
+
     public GateLaneRepository() {
         super("GateLane");
+        defineIndex(LANE_NUMBER_INDEX, GateLane::getLaneNumber, true);
     }
 
     public Optional<GateLane> findByLaneNumber(int laneNumber) {
-        return findOneBy(lane -> lane.getLaneNumber() == laneNumber);
+        return findOneByIndex(LANE_NUMBER_INDEX, laneNumber);
+    }
+
+    /** Lane with the given number, or null; see {@link #getOneByIndexOrNull}. */
+    public GateLane getByLaneNumberOrNull(int laneNumber) {
+        return getOneByIndexOrNull(LANE_NUMBER_INDEX, laneNumber);
     }
 
+    // Not indexed: BUSY is derived from the lane's sliding admission window and changes with time
     public List<GateLane> findOpenLanes() {
         return findBy(lane -> lane.getStatus() == LaneStatus.OPEN);
     }
-}
\ No newline at end of file
+}
@@ -2,23 +2,154 @@ package com.research.repository;
 
 import com.research.model.GatePass;
 import com.research.model.PassStatus;
+import com.research.persistence.ArchivedPass;
+import com.research.persistence.PassArchive;
+import com.research.util.EpochClock;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class GatePassRepository extends InMemoryRepository<GatePass> {
+    private static final String VEHICLE_INDEX = "vehicleId";
+    private static final String LANE_INDEX = "laneId";
+    private static final String STATUS_INDEX = "status";
+    private static final String LANE_TIME_INDEX = "laneIdByPassTime";
+
+    private final PassHistory history = new PassHistory();
+    private volatile PassArchive archive;
+
     public GatePassRepository() {
         super("GatePass");
+        // Status changes made by TrafficService go through update(), which re-buckets the pass
+        defineIndex(VEHICLE_INDEX, pass -> pass.getVehicle().getId(), false);
+        defineIndex(LANE_INDEX, pass -> pass.getLane().getId(), false);
+        defineIndex(STATUS_INDEX, GatePass::getStatus, false);
+        defineRangeIndex(LANE_TIME_INDEX, pass -> pass.getLane().getId(), GatePass::getPassTimeMillis);
     }
 
     public List<GatePass> findByVehicleId(int vehicleId) {
-        return findBy(pass -> pass.getVehicle().getId() == vehicleId);
+        return findByIndex(VEHICLE_INDEX, vehicleId);
     }
 
     public List<GatePass> findByLaneId(int laneId) {
-        return findBy(pass -> pass.getLane().getId() == laneId);
+        return findByIndex(LANE_INDEX, laneId);
+    }
+
+    /**
+     * Passes through the lane with passTime in [start, end], oldest first.
+     */
+    public List<GatePass> findByLaneIdBetween(int laneId, LocalDateTime start, LocalDateTime end) {
+        return findInRange(LANE_TIME_INDEX, laneId, EpochClock.toEpochMillis(start), EpochClock.toEpochMillis(end));
+    }
+
+    /**
+     * Counts live and archived passes through the lane with passTime in [start, end].
+     */
+    public int countByLaneIdBetween(int laneId, LocalDateTime start, LocalDateTime end) {
+        int live = countInRange(LANE_TIME_INDEX, laneId, EpochClock.toEpochMillis(start), EpochClock.toEpochMillis(end));
+        PassArchive current = archive;
+        return current == null ? live : live + current.countByLaneIdBetween(laneId, start, end);
+    }
+
+    /**
+     * Columnar record of every pass stored, including ones since archived.
+     */
+    public PassHistory getHistory() {
+        return history;
+    }
+
+    public List<ArchivedPass> findArchivedByVehicleId(int vehicleId) {
+        PassArchive current = archive;
+        return current == null ? List.of() : current.findByVehicleId(vehicleId);
+    }
+
+    public List<ArchivedPass> findArchivedByLaneId(int laneId) {
+        PassArchive current = archive;
+        return current == null ? List.of() : current.findByLaneId(laneId);
+    }
+
+    /**
+     * Archived passes through the lane with passTime in [start, end], oldest first.
+     */
+    public List<ArchivedPass> findArchivedByLaneIdBetween(int laneId, LocalDateTime start, LocalDateTime end) {
+        PassArchive current = archive;
+        return current == null ? List.of() : current.findByLaneIdBetween(laneId, start, end);
+    }
+
+    /**
+     * Every archived pass, in archive order.
+     */
+    public List<ArchivedPass> findAllArchived() {
+        PassArchive current = archive;
+        if (current == null) {
+            return List.of();
+        }
+        List<ArchivedPass> archived = new ArrayList<>();
+        current.forEach(archived::add);
+        return archived;
+    }
+
+    /**
+     * Moves completed and denied passes out of the heap into the archive from now on.
+     * A pass already in the archive is dropped from the heap whatever its status: a crash
+     * between the archive append and the logged delete restores it in its last logged
+     * status, while the archive holds the final one. Closed passes still held and not yet
+     * archived, e.g. restored from a log written before the move, are archived now.
+     */
+    public void attachArchive(PassArchive archive) {
+        archive.forEachId(id -> {
+            if (existsById(id)) {
+                delete(id);
+            }
+        });
+        List<GatePass> closed = new ArrayList<>(findByStatus(PassStatus.COMPLETED));
+        closed.addAll(findByStatus(PassStatus.DENIED));
+        for (GatePass pass : closed) {
+            appendToArchive(archive, pass);
+            delete(pass.getId());
+        }
+        archive.forEach(archived -> history.record(archived.id(), archived.laneId(), archived.vehicleId(),
+                archived.passTimeEpochSecond(), archived.direction(), archived.status()));
+        this.archive = archive;
+    }
+
+    /**
+     * Stores a pass that reached a final status: appended to the archive and dropped from
+     * the heap when an archive is attached, otherwise updated in place.
+     */
+    public GatePass closePass(GatePass pass) {
+        PassArchive current = archive;
+        if (current == null) {
+            return update(pass);
+        }
+        pass.setUpdatedAtMillis(EpochClock.now());
+        appendToArchive(current, pass);
+        history.record(pass);
+        delete(pass.getId());
+        return pass;
+    }
+
+    @Override
+    protected void onStored(GatePass pass) {
+        history.record(pass);
+    }
+
+    private static void appendToArchive(PassArchive archive, GatePass pass) {
+        try {
+            archive.append(pass);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive gate pass " + pass.getId(), e);
+        }
+    }
+
+    public List<GatePass> findByStatus(PassStatus status) {
+        return findByIndex(STATUS_INDEX, status);
     }
 
     public List<GatePass> findPendingPasses() {
-        return findBy(pass -> pass.getStatus() == PassStatus.PENDING);
+        return findByStatus(PassStatus.PENDING);
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,110 @@
 package com.research.repository;
 
+import com.research.persistence.EntityCodec;
+import com.research.persistence.LogOperation;
+import com.research.persistence.LogRecord;
+import com.research.persistence.SnapshotFile;
+import com.research.persistence.WriteAheadLog;
+import com.research.util.EpochClock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
+/**
+ * Thread-safe in-memory repository.
+ * Reads go straight to the concurrent map and never block; writes are serialized
+ * per id through a fixed set of lock stripes, so writers on different entities
+ * proceed in parallel. Subclasses can declare {@link SecondaryIndex secondary indexes}
+ * that are kept in step with every write and queried through {@link #findByIndex}.
+ * With a {@link WriteAheadLog} attached, every write is logged before it becomes visible.
+ */
 public class InMemoryRepository<T extends com.research.model.BaseEntity> implements BaseRepository<T> {
-    protected final Map<Integer, T> storage = new HashMap<>();
+    private static final int LOCK_STRIPES = 64;
+    private static final Integer LOWEST_ID = Integer.MIN_VALUE;
+
+    protected final Map<Integer, T> storage = new ConcurrentHashMap<>();
     protected final AtomicInteger idCounter = new AtomicInteger(1);
     protected final String entityName;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<String, EntityIndex<T>> indexes = new LinkedHashMap<>();
+    private volatile WriteAheadLog log;
+    private volatile EntityCodec<T> codec;
 
     public InMemoryRepository(String entityName) {
         this.entityName = entityName;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
     }
 
     @Override
     public T save(T entity) {
         if (entity.getId() == 0) {
-            entity.setId(idCounter.getAndIncrement());
-        } else {
-            if (existsById(entity.getId())) {
-                throw new com.research.exception.DuplicateIdException(entityName, entity.getId());
+            // Skip ids that were taken by an explicit-id save in the meantime
+            while (!storeWithId(entity, idCounter.getAndIncrement())) {
+                // id already taken, try the next one
             }
-            // Update idCounter if needed
-            if (entity.getId() >= idCounter.get()) {
-                idCounter.set(entity.getId() + 1);
+            return entity;
+        }
+
+        int id = entity.getId();
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (storage.containsKey(id)) {
+                throw new com.research.exception.DuplicateIdException(entityName, id);
             }
+            store(LogOperation.SAVE, entity);
+        } finally {
+            lock.unlock();
         }
-        storage.put(entity.getId(), entity);
+        // Update idCounter if needed
+        idCounter.accumulateAndGet(id + 1, Math::max);
         return entity;
     }
 
+    /**
+     * Saves a batch, reserving one block of generated ids up front instead of one per entity.
+     * Entities without an id are stored together: indexed, logged as one group-commit unit
+     * (a single fsync under {@link com.research.persistence.FsyncPolicy#ALWAYS}) and made
+     * visible, or not stored at all if any of them fails. Entities with an explicit id are
+     * saved one by one afterwards.
+     */
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        List<T> generated = new ArrayList<>();
+        List<T> explicit = new ArrayList<>();
+        for (T entity : entities) {
+            if (entity.getId() == 0) {
+                generated.add(entity);
+            } else {
+                explicit.add(entity);
+            }
+        }
+        int firstId = idCounter.getAndAdd(generated.size());
+
+        // The reserved ids taken by an explicit-id save meanwhile get fresh ids one by one
+        for (T entity : storeBatch(generated, firstId)) {
+            save(entity);
+        }
+        for (T entity : explicit) {
+            save(entity);
+        }
+        return new ArrayList<>(entities);
+    }
+
     @Override
     public Optional<T> findById(int id) {
         return Optional.ofNullable(storage.get(id));
@@ -47,20 +118,33 @@ public class InMemoryRepository<T extends com.research.model.BaseEntity> impleme
     @Override
     public T update(T entity) {
         int id = entity.getId();
-        if (!existsById(id)) {
-            throw new com.research.exception.NotFoundException(entityName, id);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (!storage.containsKey(id)) {
+                throw new com.research.exception.NotFoundException(entityName, id);
+            }
+            entity.setUpdatedAtMillis(EpochClock.now());
+            store(LogOperation.UPDATE, entity);
+        } finally {
+            lock.unlock();
         }
-        entity.setUpdatedAt(java.time.LocalDateTime.now());
-        storage.put(id, entity);
         return entity;
     }
 
     @Override
     public void delete(int id) {
-        if (!existsById(id)) {
-            throw new com.research.exception.NotFoundException(entityName, id);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (!storage.containsKey(id)) {
+                throw new com.research.exception.NotFoundException(entityName, id);
+            }
+            journal(LogOperation.DELETE, id, null);
+            unstore(id);
+        } finally {
+            lock.unlock();
         }
-        storage.remove(id);
     }
 
     @Override
@@ -82,7 +166,347 @@ public class InMemoryRepository<T extends com.research.model.BaseEntity> impleme
                 .findFirst();
     }
 
+    public List<T> findByIndex(String indexName, Object key) {
+        List<T> result = new ArrayList<>();
+        for (Integer id : secondaryIndex(indexName).ids(key)) {
+            T entity = storage.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    public Optional<T> findOneByIndex(String indexName, Object key) {
+        return Optional.ofNullable(getOneByIndexOrNull(indexName, key));
+    }
+
+    /**
+     * First entity under the key, or null. Walks the bucket with {@code higher} instead of
+     * an iterator, so a lookup allocates nothing on hot paths.
+     */
+    public T getOneByIndexOrNull(String indexName, Object key) {
+        NavigableSet<Integer> ids = secondaryIndex(indexName).ids(key);
+        for (Integer id = ids.ceiling(LOWEST_ID); id != null; id = ids.higher(id)) {
+            T entity = storage.get(id);
+            if (entity != null) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    public boolean existsByIndex(String indexName, Object key) {
+        return secondaryIndex(indexName).containsKey(key);
+    }
+
+    /**
+     * Entities in the given group of a range index whose sort key lies in [from, to], in sort-key order.
+     */
+    public <C extends Comparable<? super C>> List<T> findInRange(String indexName, Object group, C from, C to) {
+        List<T> result = new ArrayList<>();
+        for (RangeIndex.Entry<C> entry : this.<C>rangeIndex(indexName).range(group, from, to)) {
+            T entity = storage.get(entry.id());
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    public <C extends Comparable<? super C>> int countInRange(String indexName, Object group, C from, C to) {
+        return this.<C>rangeIndex(indexName).range(group, from, to).size();
+    }
+
     public Map<Integer, T> getStorage() {
         return storage;
     }
-}
\ No newline at end of file
+
+    /**
+     * Declares a secondary index. Meant to be called from subclass constructors;
+     * entities already stored are indexed immediately.
+     */
+    protected <K> void defineIndex(String indexName, Function<T, K> keyExtractor, boolean unique) {
+        registerIndex(new SecondaryIndex<>(indexName, keyExtractor, unique));
+    }
+
+    /**
+     * Declares a range index: entities grouped by one key and ordered by another.
+     */
+    protected <G, C extends Comparable<? super C>> void defineRangeIndex(String indexName,
+                                                                        Function<T, G> groupExtractor,
+                                                                        Function<T, C> sortKeyExtractor) {
+        registerIndex(new RangeIndex<>(indexName, groupExtractor, sortKeyExtractor));
+    }
+
+    private void registerIndex(EntityIndex<T> index) {
+        String indexName = index.getName();
+        synchronized (indexes) {
+            if (indexes.containsKey(indexName)) {
+                throw new IllegalStateException("Index " + indexName + " already defined for " + entityName);
+            }
+            for (T entity : storage.values()) {
+                index.put(entity, entityName);
+            }
+            indexes.put(indexName, index);
+        }
+    }
+
+    /**
+     * Restores the latest snapshot and replays the log after it, then logs every subsequent
+     * write. Replay is idempotent: saves and updates are applied as upserts and deletes of
+     * missing ids are ignored, so records already reflected in the snapshot are harmless.
+     * Repositories whose codec resolves references must be attached after the ones they reference.
+     */
+    public void attachLog(WriteAheadLog log, EntityCodec<T> codec) {
+        this.codec = codec;
+        try {
+            long fromLsn = 0;
+            Optional<SnapshotFile> snapshot = SnapshotFile.latest(log.getDirectory(), log.firstLsn());
+            if (snapshot.isPresent()) {
+                int snapshotIdCounter = snapshot.get().read(payload -> upsert(codec.decode(payload)));
+                idCounter.accumulateAndGet(snapshotIdCounter, Math::max);
+                fromLsn = snapshot.get().getLsn();
+            }
+            log.replay(fromLsn, this::apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to restore " + entityName + " from " + log.getDirectory(), e);
+        }
+        this.log = log;
+    }
+
+    /**
+     * Writes a snapshot next to the attached log without stopping writers, then deletes
+     * the log segments and older snapshots it supersedes.
+     * The snapshot is fuzzy: it may include writes logged after its LSN, which replay
+     * simply applies again.
+     */
+    public SnapshotFile snapshot() throws IOException {
+        WriteAheadLog current = log;
+        if (current == null) {
+            throw new IllegalStateException("No write-ahead log attached to " + entityName + " repository");
+        }
+        long lsn = current.rollSegment();
+        // A write logged before the roll holds its stripe until it reaches storage
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+            lock.unlock();
+        }
+        SnapshotFile snapshot = SnapshotFile.write(current.getDirectory(), lsn, idCounter.get(),
+                storage.values(), codec);
+        current.deleteSegmentsBefore(lsn);
+        snapshot.deleteOlder();
+        return snapshot;
+    }
+
+    /**
+     * Applies a logged write without logging it again.
+     */
+    protected void apply(LogRecord record) {
+        int id = record.entityId();
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (record.operation() == LogOperation.DELETE) {
+                unstore(id);
+            } else {
+                upsert(codec.decode(record.payload()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        idCounter.accumulateAndGet(id + 1, Math::max);
+    }
+
+    private void upsert(T entity) {
+        updateIndexes(entity);
+        storage.put(entity.getId(), entity);
+        onStored(entity);
+        idCounter.accumulateAndGet(entity.getId() + 1, Math::max);
+    }
+
+    /**
+     * Called under the entity's write lock before it is stored by save or update.
+     * Throwing here aborts the write and leaves storage untouched.
+     */
+    protected void onStore(T entity) {
+    }
+
+    /**
+     * Called under the entity's write lock once it has been stored by save, update or replay.
+     */
+    protected void onStored(T entity) {
+    }
+
+    /**
+     * Called under the entity's write lock after it has been removed from storage.
+     */
+    protected void onRemove(T entity) {
+    }
+
+    // Stores a new entity under a generated id unless that id is already taken
+    private boolean storeWithId(T entity, int id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (storage.containsKey(id)) {
+                return false;
+            }
+            entity.setId(id);
+            try {
+                store(LogOperation.SAVE, entity);
+            } catch (RuntimeException e) {
+                entity.setId(0);
+                throw e;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stores the batch under ids firstId, firstId + 1, ... and returns the entities whose id was taken
+    private List<T> storeBatch(List<T> batch, int firstId) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        // Stripes are taken in ascending order, so concurrent batches cannot deadlock
+        boolean[] stripes = new boolean[LOCK_STRIPES];
+        for (int i = 0; i < batch.size(); i++) {
+            stripes[(firstId + i) & (LOCK_STRIPES - 1)] = true;
+        }
+        List<ReentrantLock> held = new ArrayList<>();
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            if (stripes[stripe]) {
+                locks[stripe].lock();
+                held.add(locks[stripe]);
+            }
+        }
+        try {
+            List<T> stored = new ArrayList<>(batch.size());
+            List<T> taken = new ArrayList<>();
+            List<Runnable> undoIndexes = new ArrayList<>(batch.size());
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    T entity = batch.get(i);
+                    if (storage.containsKey(firstId + i)) {
+                        taken.add(entity);
+                        continue;
+                    }
+                    entity.setId(firstId + i);
+                    undoIndexes.add(updateIndexes(entity));
+                    stored.add(entity);
+                }
+                journalAll(stored);
+            } catch (RuntimeException e) {
+                for (int i = undoIndexes.size() - 1; i >= 0; i--) {
+                    undoIndexes.get(i).run();
+                }
+                for (T entity : batch) {
+                    entity.setId(0);
+                }
+                throw e;
+            }
+            for (T entity : stored) {
+                storage.put(entity.getId(), entity);
+                onStored(entity);
+            }
+            return taken;
+        } finally {
+            for (ReentrantLock lock : held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private SecondaryIndex<T, ?> secondaryIndex(String indexName) {
+        if (index(indexName) instanceof SecondaryIndex<T, ?> index) {
+            return index;
+        }
+        throw new IllegalArgumentException(indexName + " is not a key index for " + entityName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C extends Comparable<? super C>> RangeIndex<T, ?, C> rangeIndex(String indexName) {
+        if (index(indexName) instanceof RangeIndex<T, ?, ?> index) {
+            return (RangeIndex<T, ?, C>) index;
+        }
+        throw new IllegalArgumentException(indexName + " is not a range index for " + entityName);
+    }
+
+    private EntityIndex<T> index(String indexName) {
+        EntityIndex<T> index = indexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown index " + indexName + " for " + entityName);
+        }
+        return index;
+    }
+
+    // Called under the entity's write lock once the write has passed its checks
+    private void store(LogOperation operation, T entity) {
+        Runnable undoIndexes = updateIndexes(entity);
+        try {
+            journal(operation, entity.getId(), entity);
+        } catch (RuntimeException e) {
+            undoIndexes.run();
+            throw e;
+        }
+        storage.put(entity.getId(), entity);
+        onStored(entity);
+    }
+
+    private void unstore(int id) {
+        T removed = storage.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (EntityIndex<T> index : indexes.values()) {
+            index.remove(removed);
+        }
+        onRemove(removed);
+    }
+
+    private void journal(LogOperation operation, int id, T entity) {
+        WriteAheadLog current = log;
+        if (current != null) {
+            current.append(operation, id, entity == null ? new byte[0] : codec.encode(entity));
+        }
+    }
+
+    private void journalAll(List<T> entities) {
+        WriteAheadLog current = log;
+        if (current == null || entities.isEmpty()) {
+            return;
+        }
+        int[] ids = new int[entities.size()];
+        byte[][] payloads = new byte[entities.size()][];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = entities.get(i).getId();
+            payloads[i] = codec.encode(entities.get(i));
+        }
+        current.appendAll(LogOperation.SAVE, ids, payloads);
+    }
+
+    private Runnable updateIndexes(T entity) {
+        onStore(entity);
+        List<Runnable> rollback = new ArrayList<>(indexes.size());
+        Runnable undo = () -> {
+            for (int i = rollback.size() - 1; i >= 0; i--) {
+                rollback.get(i).run();
+            }
+        };
+        try {
+            for (EntityIndex<T> index : indexes.values()) {
+                rollback.add(index.put(entity, entityName));
+            }
+        } catch (RuntimeException e) {
+            undo.run();
+            throw e;
+        }
+        return undo;
+    }
+
+    private ReentrantLock lockFor(int id) {
+        return locks[id & (LOCK_STRIPES - 1)];
+    }
+}
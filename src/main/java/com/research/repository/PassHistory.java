@@ -0,0 +1,261 @@
+package com.research.repository;
+
+import com.research.model.GatePass;
+import com.research.model.PassDirection;
+import com.research.model.PassStatus;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Column store of every pass seen: one row per pass id holding lane, vehicle id,
+ * pass time (epoch seconds), direction and latest status in parallel primitive arrays.
+ * Rows live in fixed-size chunks so growing never copies existing rows. Lanes are stored
+ * as a short slot number into the table of lane ids seen, and the row of a pass id is
+ * found through an open-addressing int map, so nothing is boxed per row.
+ * <p>
+ * Writes are serialized by a lock; readers take the row count first and then scan
+ * without locking, as tight loops over primitive arrays with no per-row allocation.
+ * A status changed during a scan may be seen either before or after the change.
+ */
+public class PassHistory {
+    private static final int CHUNK_ROWS = 1 << 14;
+    private static final int HOUR_SECONDS = 3600;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Written under the write lock only
+    private final IntIntMap rowByPassId = new IntIntMap();
+    private final IntIntMap slotByLaneId = new IntIntMap();
+    // Grown before size moves past it, so readers read size first
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int[] laneIdBySlot = new int[0];
+    private volatile int size;
+
+    /**
+     * Adds the pass, or updates its row if it was recorded before.
+     */
+    public void record(GatePass pass) {
+        record(pass.getId(), pass.getLane().getId(), pass.getVehicle().getId(), pass.getPassTimeMillis() / 1000,
+                pass.getDirection(), pass.getStatus());
+    }
+
+    public void record(int passId, int laneId, int vehicleId, long epochSecond,
+                       PassDirection direction, PassStatus status) {
+        writeLock.lock();
+        try {
+            int existing = rowByPassId.get(passId);
+            int row = existing >= 0 ? existing : size;
+            Chunk chunk = chunkFor(row);
+            int offset = row & (CHUNK_ROWS - 1);
+            chunk.laneSlots[offset] = (short) laneSlot(laneId);
+            chunk.vehicleIds[offset] = vehicleId;
+            chunk.epochSeconds[offset] = epochSecond;
+            chunk.directions[offset] = (byte) direction.ordinal();
+            chunk.statuses[offset] = (byte) status.ordinal();
+            if (existing < 0) {
+                rowByPassId.put(passId, row);
+                size = row + 1;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes through the lane with pass time in [fromEpochSecond, toEpochSecond].
+     */
+    public int countByLaneBetween(int laneId, long fromEpochSecond, long toEpochSecond) {
+        int rows = size;
+        Chunk[] current = chunks;
+        int laneSlot = indexOf(laneIdBySlot, laneId);
+        if (laneSlot < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int c = 0; c * CHUNK_ROWS < rows; c++) {
+            Chunk chunk = current[c];
+            int end = Math.min(CHUNK_ROWS, rows - c * CHUNK_ROWS);
+            short[] lanes = chunk.laneSlots;
+            long[] times = chunk.epochSeconds;
+            for (int i = 0; i < end; i++) {
+                if (lanes[i] == laneSlot && times[i] >= fromEpochSecond && times[i] <= toEpochSecond) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Pass counts by lane id and hour for passes in [fromEpochSecond, toEpochSecond):
+     * {@code counts.get(laneId)[h]} counts hour {@code h} after {@code fromEpochSecond}.
+     * Only lanes with passes in the range are present, in lane id order.
+     */
+    public Map<Integer, int[]> countByLaneAndHour(long fromEpochSecond, long toEpochSecond) {
+        int rows = size;
+        Chunk[] current = chunks;
+        int[] lanesBySlot = laneIdBySlot;
+        int hours = (int) ((toEpochSecond - fromEpochSecond + HOUR_SECONDS - 1) / HOUR_SECONDS);
+        int[][] counts = new int[lanesBySlot.length][];
+        for (int c = 0; c * CHUNK_ROWS < rows; c++) {
+            Chunk chunk = current[c];
+            int end = Math.min(CHUNK_ROWS, rows - c * CHUNK_ROWS);
+            short[] lanes = chunk.laneSlots;
+            long[] times = chunk.epochSeconds;
+            for (int i = 0; i < end; i++) {
+                long time = times[i];
+                if (time >= fromEpochSecond && time < toEpochSecond) {
+                    int lane = lanes[i];
+                    if (counts[lane] == null) {
+                        counts[lane] = new int[hours];
+                    }
+                    counts[lane][(int) ((time - fromEpochSecond) / HOUR_SECONDS)]++;
+                }
+            }
+        }
+        Map<Integer, int[]> byLane = new TreeMap<>();
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (counts[slot] != null) {
+                byLane.put(lanesBySlot[slot], counts[slot]);
+            }
+        }
+        return byLane;
+    }
+
+    /**
+     * Pass counts indexed by {@link PassStatus#ordinal()}.
+     */
+    public int[] countByStatus() {
+        int rows = size;
+        Chunk[] current = chunks;
+        int[] counts = new int[PassStatus.values().length];
+        for (int c = 0; c * CHUNK_ROWS < rows; c++) {
+            byte[] statuses = current[c].statuses;
+            int end = Math.min(CHUNK_ROWS, rows - c * CHUNK_ROWS);
+            for (int i = 0; i < end; i++) {
+                counts[statuses[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    // Called under the write lock; publishes a new lane before any row refers to it
+    private int laneSlot(int laneId) {
+        int slot = slotByLaneId.get(laneId);
+        if (slot >= 0) {
+            return slot;
+        }
+        int[] lanes = laneIdBySlot;
+        if (lanes.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("Pass history holds at most " + (Short.MAX_VALUE + 1) + " lanes");
+        }
+        slot = lanes.length;
+        int[] grown = Arrays.copyOf(lanes, slot + 1);
+        grown[slot] = laneId;
+        laneIdBySlot = grown;
+        slotByLaneId.put(laneId, slot);
+        return slot;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Chunk chunkFor(int row) {
+        int index = row / CHUNK_ROWS;
+        Chunk[] current = chunks;
+        if (index < current.length) {
+            return current[index];
+        }
+        Chunk[] grown = new Chunk[index + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        for (int i = current.length; i <= index; i++) {
+            grown[i] = new Chunk();
+        }
+        chunks = grown;
+        return grown[index];
+    }
+
+    private static final class Chunk {
+        private final short[] laneSlots = new short[CHUNK_ROWS];
+        private final int[] vehicleIds = new int[CHUNK_ROWS];
+        private final long[] epochSeconds = new long[CHUNK_ROWS];
+        private final byte[] directions = new byte[CHUNK_ROWS];
+        private final byte[] statuses = new byte[CHUNK_ROWS];
+    }
+
+    /**
+     * Open-addressing map from int keys to non-negative int values; {@link #get} returns -1
+     * for a missing key. Not thread-safe.
+     */
+    private static final class IntIntMap {
+        private static final int FREE = -1;
+
+        private int[] keys = new int[16];
+        private int[] values = filledWith(16, FREE);
+        private int size;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (values[i] == FREE) {
+                    return FREE;
+                }
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != FREE && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == FREE) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = filledWith(capacity, FREE);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != FREE) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private static int[] filledWith(int length, int value) {
+            int[] array = new int[length];
+            Arrays.fill(array, value);
+            return array;
+        }
+    }
+}
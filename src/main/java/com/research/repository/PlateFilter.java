@@ -0,0 +1,84 @@
+package com.research.repository;
+
+import com.research.util.BloomFilter;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link BloomFilter} over the plates a repository holds, so lookups of plates it has
+ * never seen are answered without touching the indexes. Plates are added as entities
+ * are stored; a Bloom filter cannot forget, so on removal the owner rebuilds it from
+ * storage. It is also rebuilt, twice as large, once it holds more plates than it was
+ * sized for, which keeps it near its false positive rate at about 1.2 bytes per plate.
+ */
+class PlateFilter<T> {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Collection<T> source;
+    private final Function<T, String> plateOf;
+    private final AtomicInteger added = new AtomicInteger();
+    private volatile BloomFilter current;
+    // Filter being rebuilt; adds go to both so none is lost in the swap
+    private volatile BloomFilter pending;
+    private volatile int capacity = MIN_CAPACITY;
+
+    /**
+     * @param source live view of the stored entities; those mapping to a null plate are left out
+     */
+    PlateFilter(Collection<T> source, Function<T, String> plateOf) {
+        this.source = source;
+        this.plateOf = plateOf;
+        this.current = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+    }
+
+    boolean mightContain(String plate) {
+        return plate != null && current.mightContain(plate);
+    }
+
+    void add(T entity) {
+        String plate = plateOf.apply(entity);
+        if (plate == null) {
+            return;
+        }
+        // Read pending before current: seeing no rebuild means either none has begun, so its
+        // scan will find the stored entity, or one has finished and current is its filter
+        BloomFilter rebuilding = pending;
+        current.add(plate);
+        if (rebuilding != null) {
+            rebuilding.add(plate);
+        }
+        if (added.incrementAndGet() > capacity) {
+            grow();
+        }
+    }
+
+    /**
+     * Replaces the filter with one holding only the plates in storage now.
+     */
+    synchronized void rebuild() {
+        capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, source.size())) * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        // Published before the scan, so an add that does not see it stored its entity before the scan began
+        pending = rebuilt;
+        int plates = 0;
+        for (T entity : source) {
+            String plate = plateOf.apply(entity);
+            if (plate != null) {
+                rebuilt.add(plate);
+                plates++;
+            }
+        }
+        current = rebuilt;
+        pending = null;
+        added.set(plates);
+    }
+
+    private synchronized void grow() {
+        if (added.get() > capacity) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.research.repository;
+
+import com.research.model.BaseEntity;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Groups entities by a key and keeps each group ordered by a sort key, so range
+ * queries within a group are a logarithmic seek plus a walk over the matches.
+ * Entities with a null group or sort key are left out of the index.
+ */
+public class RangeIndex<T extends BaseEntity, G, C extends Comparable<? super C>> implements EntityIndex<T> {
+    private final String name;
+    private final Function<T, G> groupExtractor;
+    private final Function<T, C> sortKeyExtractor;
+    private final Comparator<Entry<C>> order = Comparator
+            .comparing((Entry<C> entry) -> entry.sortKey())
+            .thenComparingInt(Entry::id);
+    private final Map<G, NavigableSet<Entry<C>>> entriesByGroup = new ConcurrentHashMap<>();
+    private final Map<Integer, Placement<G, C>> placementsById = new ConcurrentHashMap<>();
+
+    public RangeIndex(String name, Function<T, G> groupExtractor, Function<T, C> sortKeyExtractor) {
+        this.name = name;
+        this.groupExtractor = groupExtractor;
+        this.sortKeyExtractor = sortKeyExtractor;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Runnable put(T entity, String entityName) {
+        int id = entity.getId();
+        G group = groupExtractor.apply(entity);
+        C sortKey = sortKeyExtractor.apply(entity);
+        Placement<G, C> placement = group == null || sortKey == null
+                ? null : new Placement<>(group, new Entry<>(sortKey, id));
+        Placement<G, C> previous = placement == null ? placementsById.remove(id) : placementsById.put(id, placement);
+
+        if (previous != null && !previous.equals(placement)) {
+            unplace(previous);
+        }
+        if (placement != null && !placement.equals(previous)) {
+            place(placement);
+        }
+
+        return () -> {
+            Placement<G, C> current = previous == null ? placementsById.remove(id) : placementsById.put(id, previous);
+            if (current != null && !current.equals(previous)) {
+                unplace(current);
+            }
+            if (previous != null && !previous.equals(current)) {
+                place(previous);
+            }
+        };
+    }
+
+    @Override
+    public void remove(T entity) {
+        Placement<G, C> previous = placementsById.remove(entity.getId());
+        if (previous != null) {
+            unplace(previous);
+        }
+    }
+
+    /**
+     * Ids in the group whose sort key lies in [from, to], in sort-key order.
+     */
+    NavigableSet<Entry<C>> range(Object group, C from, C to) {
+        NavigableSet<Entry<C>> entries = entriesByGroup.get(group);
+        if (entries == null || from.compareTo(to) > 0) {
+            return new ConcurrentSkipListSet<>(order);
+        }
+        return entries.subSet(new Entry<>(from, Integer.MIN_VALUE), true, new Entry<>(to, Integer.MAX_VALUE), true);
+    }
+
+    private void place(Placement<G, C> placement) {
+        entriesByGroup.compute(placement.group(), (g, entries) -> {
+            NavigableSet<Entry<C>> set = entries == null ? new ConcurrentSkipListSet<>(order) : entries;
+            set.add(placement.entry());
+            return set;
+        });
+    }
+
+    private void unplace(Placement<G, C> placement) {
+        entriesByGroup.computeIfPresent(placement.group(), (g, entries) -> {
+            entries.remove(placement.entry());
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    record Entry<C>(C sortKey, int id) {
+    }
+
+    private record Placement<G, C>(G group, Entry<C> entry) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.research.repository;
+
+import com.research.model.VisitReservation;
+import com.research.util.EpochClock;
+import com.research.util.TimingWheel;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Access windows of the live reservations, driven by a {@link TimingWheel}: each window
+ * is opened and closed by a timer, so the plates open at any moment form an allowlist
+ * that admission probes with one hash lookup rather than a date computation per check.
+ * Closing a window hands the reservation to the expiry callback. Time is taken from
+ * {@link EpochClock} and the wheel is advanced by readers; a read never waits for the
+ * wheel, so windows open and close to within a tick of the read.
+ */
+class ReservationWindows {
+    static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    static final long TICK_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final TimingWheel wheel = new TimingWheel(TICK_MILLIS, EpochClock.now());
+    private final Map<String, VisitReservation> openByPlate = new ConcurrentHashMap<>();
+    private final Map<Integer, Window> windowsById = new ConcurrentHashMap<>();
+    private final Consumer<VisitReservation> onExpired;
+
+    ReservationWindows(Consumer<VisitReservation> onExpired) {
+        this.onExpired = onExpired;
+    }
+
+    /**
+     * Schedules the reservation's window, replacing any window it had before.
+     */
+    void track(VisitReservation reservation, String plateKey) {
+        untrack(reservation.getId());
+        long visitAt = EpochClock.toEpochMillis(LocalDateTime.of(reservation.getVisitDate(), reservation.getVisitTime()));
+        Window window = new Window(reservation, plateKey, visitAt + WINDOW_MILLIS);
+        windowsById.put(reservation.getId(), window);
+        window.opening = wheel.schedule(visitAt - WINDOW_MILLIS, window::open);
+        // The window includes its last millisecond
+        window.closing = wheel.schedule(window.closesAt + 1, window::close);
+    }
+
+    /**
+     * Drops the reservation's window; returns false if it had none, e.g. it already expired.
+     */
+    boolean untrack(int reservationId) {
+        Window window = windowsById.remove(reservationId);
+        if (window == null) {
+            return false;
+        }
+        window.opening.cancel();
+        window.closing.cancel();
+        window.closed = true;
+        openByPlate.remove(window.plateKey, window.reservation);
+        return true;
+    }
+
+    /**
+     * Whether the reservation's window includes the given time, computed rather than looked up.
+     */
+    static boolean covers(VisitReservation reservation, long epochMillis) {
+        long visitAt = EpochClock.toEpochMillis(LocalDateTime.of(reservation.getVisitDate(), reservation.getVisitTime()));
+        return epochMillis >= visitAt - WINDOW_MILLIS && epochMillis <= visitAt + WINDOW_MILLIS;
+    }
+
+    VisitReservation findOpen(String plateKey) {
+        wheel.tryAdvanceTo(EpochClock.now());
+        return openByPlate.get(plateKey);
+    }
+
+    boolean isOpen(String plateKey) {
+        wheel.tryAdvanceTo(EpochClock.now());
+        return openByPlate.containsKey(plateKey);
+    }
+
+    int openCount() {
+        advance();
+        return openByPlate.size();
+    }
+
+    void advance() {
+        wheel.advanceTo(EpochClock.now());
+    }
+
+    private final class Window {
+        private final VisitReservation reservation;
+        private final String plateKey;
+        private final long closesAt;
+        private TimingWheel.Timeout opening;
+        private TimingWheel.Timeout closing;
+        private volatile boolean closed;
+
+        private Window(VisitReservation reservation, String plateKey, long closesAt) {
+            this.reservation = reservation;
+            this.plateKey = plateKey;
+            this.closesAt = closesAt;
+        }
+
+        private void open() {
+            // Two readers advancing at once may run the close before the open
+            if (!closed && EpochClock.now() <= closesAt) {
+                openByPlate.put(plateKey, reservation);
+                if (closed) {
+                    openByPlate.remove(plateKey, reservation);
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            openByPlate.remove(plateKey, reservation);
+            if (windowsById.remove(reservation.getId(), this)) {
+                onExpired.accept(reservation);
+            }
+        }
+    }
+}
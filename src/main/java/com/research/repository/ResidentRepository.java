@@ -2,18 +2,26 @@ package com.research.repository;
 
 import com.research.model.Resident;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 public class ResidentRepository extends InMemoryRepository<Resident> {
+    private static final String UNIT_NUMBER_INDEX = "unitNumber";
+
     public ResidentRepository() {
         super("Resident");
+        defineIndex(UNIT_NUMBER_INDEX, resident -> normalize(resident.getUnitNumber()), false);
     }
 
     public Optional<Resident> findByUnitNumber(String unitNumber) {
-        return findOneBy(resident -> resident.getUnitNumber().equalsIgnoreCase(unitNumber));
+        return unitNumber == null ? Optional.empty() : findOneByIndex(UNIT_NUMBER_INDEX, normalize(unitNumber));
     }
 
     public List<Resident> findByNameContains(String name) {
         return findBy(resident -> resident.getFullName().toLowerCase().contains(name.toLowerCase()));
     }
-}
\ No newline at end of file
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,123 @@
+package com.research.repository;
+
+import com.research.exception.BusinessRuleViolationException;
+import com.research.model.BaseEntity;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Named key -> entity id index maintained by {@link InMemoryRepository} on every write.
+ * Entities whose extracted key is null are left out of the index, which lets an
+ * extractor double as a filter (e.g. skip cancelled records).
+ * Ids in a bucket are kept in ascending order.
+ */
+public class SecondaryIndex<T extends BaseEntity, K> implements EntityIndex<T> {
+    private final String name;
+    private final Function<T, K> keyExtractor;
+    private final boolean unique;
+    private final Map<K, NavigableSet<Integer>> idsByKey = new ConcurrentHashMap<>();
+    // Key each entity was last indexed under, so in-place mutations can be unindexed
+    private final Map<Integer, K> keysById = new ConcurrentHashMap<>();
+
+    public SecondaryIndex(String name, Function<T, K> keyExtractor, boolean unique) {
+        this.name = name;
+        this.keyExtractor = keyExtractor;
+        this.unique = unique;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    @Override
+    public Runnable put(T entity, String entityName) {
+        int id = entity.getId();
+        K key = keyExtractor.apply(entity);
+        K previous = keysById.get(id);
+
+        if (key != null && !key.equals(previous)) {
+            // compute is atomic per key, so the uniqueness check cannot race another writer
+            idsByKey.compute(key, (k, bucket) -> {
+                if (bucket == null) {
+                    bucket = new ConcurrentSkipListSet<>();
+                } else if (unique && !bucket.isEmpty() && !bucket.contains(id)) {
+                    throw new BusinessRuleViolationException(
+                            entityName + " with " + name + " '" + key + "' already exists");
+                }
+                bucket.add(id);
+                return bucket;
+            });
+        }
+
+        if (key == null) {
+            keysById.remove(id);
+        } else {
+            keysById.put(id, key);
+        }
+        if (previous != null && !previous.equals(key)) {
+            removeFromBucket(previous, id);
+        }
+        return () -> restore(entity, previous);
+    }
+
+    private void restore(T entity, K previous) {
+        int id = entity.getId();
+        K current = keysById.get(id);
+        if (Objects.equals(current, previous)) {
+            return;
+        }
+        if (current != null) {
+            removeFromBucket(current, id);
+        }
+        if (previous == null) {
+            keysById.remove(id);
+        } else {
+            keysById.put(id, previous);
+            addToBucket(previous, id);
+        }
+    }
+
+    @Override
+    public void remove(T entity) {
+        int id = entity.getId();
+        K key = keysById.remove(id);
+        if (key != null) {
+            removeFromBucket(key, id);
+        }
+    }
+
+    NavigableSet<Integer> ids(Object key) {
+        NavigableSet<Integer> bucket = idsByKey.get(key);
+        return bucket == null ? Collections.emptyNavigableSet() : bucket;
+    }
+
+    boolean containsKey(Object key) {
+        return !ids(key).isEmpty();
+    }
+
+    private void addToBucket(K key, int id) {
+        idsByKey.compute(key, (k, bucket) -> {
+            NavigableSet<Integer> ids = bucket == null ? new ConcurrentSkipListSet<>() : bucket;
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    private void removeFromBucket(K key, int id) {
+        idsByKey.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(id);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+}
@@ -3,22 +3,65 @@ package com.research.repository;
 import com.research.model.Vehicle;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 public class VehicleRepository extends InMemoryRepository<Vehicle> {
+    private static final String PLATE_INDEX = "plateNumber";
+    private static final String OWNER_INDEX = "ownerId";
+    private static final int DENSE_ID_LIMIT = 1 << 22;
+
+    private final DenseIdTable<Vehicle> vehiclesById = new DenseIdTable<>(DENSE_ID_LIMIT);
+    private final PlateFilter<Vehicle> plates = new PlateFilter<>(storage.values(), Vehicle::getPlateNumber);
+
     public VehicleRepository() {
         super("Vehicle");
+        defineIndex(PLATE_INDEX, vehicle -> plateKey(vehicle.getPlateNumber()), true);
+        defineIndex(OWNER_INDEX, vehicle -> vehicle.getOwner() == null ? null : vehicle.getOwner().getId(), false);
+    }
+
+    /**
+     * Vehicle with the given id, or null. Unlike {@link #findById} it neither boxes the id
+     * nor wraps the result, for allocation-free hot paths.
+     */
+    public Vehicle getByIdOrNull(int id) {
+        return vehiclesById.covers(id) ? vehiclesById.get(id) : storage.get(id);
     }
 
+    /**
+     * Plates never registered, such as passers-by and misreads, are turned away by a
+     * Bloom filter before the index is consulted.
+     */
     public Optional<Vehicle> findByPlateNumber(String plateNumber) {
-        return findOneBy(vehicle -> vehicle.getPlateNumber().equalsIgnoreCase(plateNumber));
+        return Optional.ofNullable(getByPlateNumberOrNull(plateNumber));
+    }
+
+    /** Vehicle with the given plate, or null, for allocation-free hot paths. */
+    public Vehicle getByPlateNumberOrNull(String plateNumber) {
+        return plates.mightContain(plateNumber) ? getOneByIndexOrNull(PLATE_INDEX, plateKey(plateNumber)) : null;
     }
 
     public List<Vehicle> findByOwnerId(int ownerId) {
-        return findBy(vehicle -> vehicle.getOwner().getId() == ownerId);
+        return findByIndex(OWNER_INDEX, ownerId);
     }
 
     public boolean plateNumberExists(String plateNumber) {
-        return findByPlateNumber(plateNumber).isPresent();
+        return plates.mightContain(plateNumber) && existsByIndex(PLATE_INDEX, plateKey(plateNumber));
+    }
+
+    @Override
+    protected void onStored(Vehicle vehicle) {
+        vehiclesById.put(vehicle.getId(), vehicle);
+        plates.add(vehicle);
+    }
+
+    @Override
+    protected void onRemove(Vehicle vehicle) {
+        vehiclesById.remove(vehicle.getId());
+        plates.rebuild();
+    }
+
+    private static String plateKey(String plateNumber) {
+        return plateNumber == null ? null : plateNumber.toUpperCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
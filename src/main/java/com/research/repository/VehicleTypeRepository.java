@@ -3,14 +3,22 @@ package com.research.repository;
 import com.research.model.VehicleType;
 import com.research.repository.InMemoryRepository;
 
+import java.util.Locale;
 import java.util.Optional;
 
 public class VehicleTypeRepository extends InMemoryRepository<VehicleType> {
+    private static final String NAME_INDEX = "name";
+
     public VehicleTypeRepository() {
         super("VehicleType");
+        defineIndex(NAME_INDEX, type -> normalize(type.getName()), false);
     }
 
     public Optional<VehicleType> findByName(String name) {
-        return findOneBy(type -> type.getName().equalsIgnoreCase(name));
+        return name == null ? Optional.empty() : findOneByIndex(NAME_INDEX, normalize(name));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT);
     }
 }
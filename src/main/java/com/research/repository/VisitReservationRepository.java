@@ -1,25 +1,230 @@
 package com.research.repository;
 
+import com.research.exception.BusinessRuleViolationException;
+import com.research.exception.NotFoundException;
 import com.research.model.VisitReservation;
+import com.research.util.EpochClock;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class VisitReservationRepository extends InMemoryRepository<VisitReservation> implements AutoCloseable {
+    private static final String ACTIVE_PLATE_INDEX = "activeVehiclePlate";
+    private static final String VISITOR_NAME_INDEX = "visitorName";
+    private static final String ACTIVE_INDEX = "active";
+    private static final String ACTIVE_PLATE_DATE_INDEX = "activeVehiclePlateAndDate";
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    // A vehicle holds at most one live reservation per day
+    private record PlateDate(String plate, LocalDate visitDate) {
+        @Override
+        public String toString() {
+            return plate + " on " + visitDate;
+        }
+    }
+
+    // Expiry writes go to the log; they run here rather than on the reader that closed the window.
+    // The thread is started by the first expiry.
+    private final ExecutorService expiryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reservation-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ReservationWindows windows = new ReservationWindows(this::scheduleExpiry);
+    private final Queue<VisitReservation> pendingExpiries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean expiryScheduled = new AtomicBoolean();
+    private final ReentrantLock expiryLock = new ReentrantLock();
+    // Mirrors the plate indexes, which leave cancelled reservations out
+    private final PlateFilter<VisitReservation> plates = new PlateFilter<>(storage.values(),
+            reservation -> reservation.isCancelled() ? null : reservation.getVehiclePlate());
 
-public class VisitReservationRepository extends InMemoryRepository<VisitReservation> {
     public VisitReservationRepository() {
         super("VisitReservation");
+        // Cancelled reservations map to a null key and are left out of the plate index
+        defineIndex(ACTIVE_PLATE_INDEX, reservation -> reservation.isCancelled()
+                ? null : normalize(reservation.getVehiclePlate()), false);
+        defineIndex(VISITOR_NAME_INDEX, reservation -> normalize(reservation.getVisitorName()), false);
+        defineIndex(ACTIVE_INDEX, reservation -> reservation.isCancelled() || reservation.isExpired()
+                ? null : Boolean.TRUE, false);
+        defineIndex(ACTIVE_PLATE_DATE_INDEX, reservation -> reservation.isCancelled()
+                ? null : new PlateDate(normalize(reservation.getVehiclePlate()), reservation.getVisitDate()), true);
     }
 
     public Optional<VisitReservation> findByVehiclePlate(String plateNumber) {
-        return findOneBy(reservation -> reservation.getVehiclePlate().equalsIgnoreCase(plateNumber)
-                && !reservation.isCancelled());
+        return !plates.mightContain(plateNumber) ? Optional.empty()
+                : findOneByIndex(ACTIVE_PLATE_INDEX, normalize(plateNumber));
+    }
+
+    /**
+     * The vehicle's non-cancelled reservation for the given day, if any.
+     */
+    public Optional<VisitReservation> findByVehiclePlateAndDate(String plateNumber, LocalDate visitDate) {
+        return !plates.mightContain(plateNumber) || visitDate == null ? Optional.empty()
+                : findOneByIndex(ACTIVE_PLATE_DATE_INDEX, new PlateDate(normalize(plateNumber), visitDate));
+    }
+
+    public boolean existsByVehiclePlateAndDate(String plateNumber, LocalDate visitDate) {
+        return plates.mightContain(plateNumber) && visitDate != null
+                && existsByIndex(ACTIVE_PLATE_DATE_INDEX, new PlateDate(normalize(plateNumber), visitDate));
     }
 
     public List<VisitReservation> findByVisitorName(String visitorName) {
-        return findBy(reservation -> reservation.getVisitorName().equalsIgnoreCase(visitorName));
+        return visitorName == null ? List.of() : findByIndex(VISITOR_NAME_INDEX, normalize(visitorName));
     }
 
+    /**
+     * Reservations neither cancelled nor past their access window.
+     */
     public List<VisitReservation> findActiveReservations() {
-        return findBy(reservation -> !reservation.isCancelled());
+        windows.advance();
+        applyExpiries();
+        return findByIndex(ACTIVE_INDEX, true);
+    }
+
+    /**
+     * The vehicle's reservation whose access window is open right now, if any.
+     */
+    public Optional<VisitReservation> findOpenByVehiclePlate(String plateNumber) {
+        return plateNumber == null ? Optional.empty() : Optional.ofNullable(windows.findOpen(normalize(plateNumber)));
+    }
+
+    /**
+     * Whether the plate may enter right now: a lock-free probe of the currently open windows.
+     */
+    public boolean isAdmissible(String plateNumber) {
+        return plateNumber != null && windows.isOpen(normalize(plateNumber));
+    }
+
+    /**
+     * Whether the plate could enter at the given time. A time within a tick of now takes the
+     * probe of {@link #isAdmissible}; other times, e.g. reads replayed from a camera file,
+     * are checked against the windows of the plate's non-cancelled reservations.
+     */
+    public boolean isAdmissibleAt(String plateNumber, long epochMillis) {
+        if (plateNumber == null) {
+            return false;
+        }
+        if (Math.abs(epochMillis - EpochClock.now()) <= ReservationWindows.TICK_MILLIS) {
+            return isAdmissible(plateNumber);
+        }
+        if (!plates.mightContain(plateNumber)) {
+            return false;
+        }
+        for (VisitReservation reservation : findByIndex(ACTIVE_PLATE_INDEX, normalize(plateNumber))) {
+            if (ReservationWindows.covers(reservation, epochMillis)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int countOpenWindows() {
+        return windows.openCount();
+    }
+
+    @Override
+    protected void onStore(VisitReservation reservation) {
+        if (reservation.isCancelled()) {
+            return;
+        }
+        findByVehiclePlateAndDate(reservation.getVehiclePlate(), reservation.getVisitDate())
+                .filter(existing -> existing.getId() != reservation.getId())
+                .ifPresent(existing -> {
+                    throw new BusinessRuleViolationException("Vehicle " + reservation.getVehiclePlate()
+                            + " already has a reservation on " + reservation.getVisitDate());
+                });
+    }
+
+    @Override
+    protected void onStored(VisitReservation reservation) {
+        if (reservation.isCancelled()) {
+            // Restored cancelled reservations were never added; an expired one may linger as a false positive
+            if (windows.untrack(reservation.getId())) {
+                plates.rebuild();
+            }
+        } else if (reservation.isExpired()) {
+            windows.untrack(reservation.getId());
+        } else {
+            plates.add(reservation);
+            windows.track(reservation, normalize(reservation.getVehiclePlate()));
+        }
+    }
+
+    @Override
+    protected void onRemove(VisitReservation reservation) {
+        windows.untrack(reservation.getId());
+        plates.rebuild();
+    }
+
+    // Runs on the reader thread that advanced the wheel past the window, so it only queues
+    private void scheduleExpiry(VisitReservation reservation) {
+        pendingExpiries.add(reservation);
+        if (expiryScheduled.compareAndSet(false, true)) {
+            try {
+                expiryExecutor.execute(() -> {
+                    expiryScheduled.set(false);
+                    applyExpiries();
+                });
+            } catch (RejectedExecutionException e) {
+                // Closed; the next read of the active list writes the expiry
+                expiryScheduled.set(false);
+            }
+        }
+    }
+
+    // Readers of the active list call this too, and wait for expiries already being written
+    private void applyExpiries() {
+        expiryLock.lock();
+        try {
+            VisitReservation reservation;
+            while ((reservation = pendingExpiries.poll()) != null) {
+                expire(reservation);
+            }
+        } finally {
+            expiryLock.unlock();
+        }
+    }
+
+    private void expire(VisitReservation reservation) {
+        if (reservation.isCancelled() || reservation.isExpired()
+                || findById(reservation.getId()).orElse(null) != reservation) {
+            return;
+        }
+        reservation.setExpired(true);
+        try {
+            update(reservation);
+        } catch (NotFoundException e) {
+            // Deleted while its window was closing
+        }
+    }
+
+    /**
+     * Stops the expiry thread once the expiries handed to it are written. Windows that close
+     * afterwards are expired by the next {@link #findActiveReservations} call.
+     */
+    @Override
+    public void close() {
+        expiryExecutor.shutdown();
+        try {
+            if (!expiryExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Reservation expiries still being written at close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.research.service;
+
+import com.research.model.GatePass;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of {@link TrafficService#requestEntries}: the passes created and,
+ * for every vehicle that could not get one, the reason why.
+ */
+public class BatchEntryResult {
+    private final List<GatePass> passes;
+    private final Map<Integer, String> failures;
+
+    public BatchEntryResult(List<GatePass> passes, Map<Integer, String> failures) {
+        this.passes = Collections.unmodifiableList(passes);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public List<GatePass> getPasses() { return passes; }
+    public Map<Integer, String> getFailures() { return failures; }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchEntryResult{passes=%d, failures=%d}", passes.size(), failures.size());
+    }
+}
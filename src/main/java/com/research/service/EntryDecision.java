@@ -0,0 +1,41 @@
+package com.research.service;
+
+/**
+ * Gate decisions packed into one int, as returned by {@link TrafficService#decideEntry}:
+ * the outcome code in the low byte and, when admitted, the lane number above it.
+ */
+public final class EntryDecision {
+    public static final int ADMITTED = 0;
+    public static final int VEHICLE_NOT_FOUND = 1;
+    public static final int VEHICLE_NOT_ALLOWED = 2;
+    public static final int NO_LANE_AVAILABLE = 3;
+
+    private EntryDecision() {
+    }
+
+    public static int admitted(int laneNumber) {
+        return laneNumber << 8 | ADMITTED;
+    }
+
+    public static int code(int decision) {
+        return decision & 0xFF;
+    }
+
+    public static int laneNumber(int decision) {
+        return decision >>> 8;
+    }
+
+    public static boolean isAdmitted(int decision) {
+        return code(decision) == ADMITTED;
+    }
+
+    public static String describe(int decision) {
+        return switch (code(decision)) {
+            case ADMITTED -> "Admitted through lane " + laneNumber(decision);
+            case VEHICLE_NOT_FOUND -> "Vehicle not found";
+            case VEHICLE_NOT_ALLOWED -> "Vehicle is not allowed entry";
+            case NO_LANE_AVAILABLE -> "No available lanes for entry";
+            default -> "Unknown decision " + decision;
+        };
+    }
+}
@@ -10,12 +10,18 @@ import java.util.List;
 import java.util.Optional;
 
 public class GateLaneService {
+    private static final int MAX_ADMIT_ATTEMPTS = 3;
+
     private final GateLaneRepository laneRepository;
     private final ValidationService validationService;
+    private final LaneSelector laneSelector = new LaneSelector();
 
     public GateLaneService(GateLaneRepository laneRepository, ValidationService validationService) {
         this.laneRepository = laneRepository;
         this.validationService = validationService;
+        for (GateLane lane : laneRepository.findAll()) {
+            laneSelector.refresh(lane);
+        }
     }
 
     public GateLane addLane(int id, int laneNumber, int capacityPerMinute) {
@@ -26,8 +32,9 @@ public class GateLaneService {
             throw new BusinessRuleViolationException("Lane with number " + laneNumber + " already exists");
         }
 
-        GateLane lane = new GateLane(id, laneNumber, capacityPerMinute, LaneStatus.OPEN);
-        return laneRepository.save(lane);
+        GateLane lane = laneRepository.save(new GateLane(id, laneNumber, capacityPerMinute, LaneStatus.OPEN));
+        laneSelector.refresh(lane);
+        return lane;
     }
 
     public List<GateLane> getAllLanes() {
@@ -35,8 +42,11 @@ public class GateLaneService {
     }
 
     public GateLane getLaneById(int id) {
-        return laneRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("GateLane", id));
+        return findLane(id).orElseThrow(() -> new NotFoundException("GateLane", id));
+    }
+
+    public Optional<GateLane> findLane(int id) {
+        return laneRepository.findById(id);
     }
 
     public GateLane updateLane(int id, int laneNumber, int capacityPerMinute) {
@@ -54,18 +64,30 @@ public class GateLaneService {
         lane.setLaneNumber(laneNumber);
         lane.setCapacityPerMinute(capacityPerMinute);
 
-        return laneRepository.update(lane);
+        GateLane updated = laneRepository.update(lane);
+        laneSelector.refresh(updated);
+        return updated;
     }
 
+    /**
+     * Opens or closes the lane. BUSY follows the lane's admissions and cannot be set; a lane
+     * stored as BUSY goes back to OPEN once a slot is released with the lane under capacity.
+     */
     public GateLane updateLaneStatus(int laneId, LaneStatus status) {
+        if (status == LaneStatus.BUSY) {
+            throw new BusinessRuleViolationException("BUSY follows lane load and cannot be set");
+        }
         GateLane lane = getLaneById(laneId);
 
-        if (lane.getStatus() == LaneStatus.BUSY && status != LaneStatus.BUSY) {
+        // A saturated OPEN lane reports BUSY but can still be closed
+        if (lane.getStoredStatus() == LaneStatus.BUSY) {
             throw new BusinessRuleViolationException("Cannot change status from BUSY directly");
         }
 
         lane.setStatus(status);
-        return laneRepository.update(lane);
+        GateLane updated = laneRepository.update(lane);
+        laneSelector.refresh(updated);
+        return updated;
     }
 
     public List<GateLane> getAvailableLanes() {
@@ -74,34 +96,90 @@ public class GateLaneService {
                 .toList();
     }
 
+    /**
+     * Open lane with the most headroom in its per-minute admission window,
+     * so arrivals spread across lanes.
+     */
     public Optional<GateLane> getAvailableLane() {
-        return laneRepository.findOpenLanes().stream()
-                .filter(GateLane::hasCapacity)
-                .findFirst();
+        return Optional.ofNullable(laneSelector.select());
     }
 
-    public void increaseLaneLoad(int laneId) {
-        GateLane lane = getLaneById(laneId);
-        lane.increaseLoad();
+    /**
+     * Admits one vehicle straight through the least utilized lane that has room, or returns
+     * null if every lane is closed or full. Allocation-free.
+     */
+    public GateLane admitThroughAvailableLane() {
+        // Another terminal may take the last slot between selection and admission
+        for (int attempt = 0; attempt < MAX_ADMIT_ATTEMPTS; attempt++) {
+            GateLane lane = laneSelector.select();
+            if (lane == null) {
+                return null;
+            }
+            if (lane.tryAdmit()) {
+                laneSelector.refresh(lane);
+                return lane;
+            }
+            laneSelector.refresh(lane);
+        }
+        return null;
+    }
 
-        if (!lane.hasCapacity()) {
-            lane.setStatus(LaneStatus.BUSY);
+    /**
+     * Admits one vehicle straight through the lane with the given number, or returns null
+     * if there is no such lane or it is closed or full.
+     */
+    public GateLane admitThroughLane(int laneNumber) {
+        GateLane lane = laneRepository.getByLaneNumberOrNull(laneNumber);
+        if (lane == null || !lane.tryAdmit()) {
+            return null;
         }
-        laneRepository.update(lane);
+        laneSelector.refresh(lane);
+        return lane;
     }
 
-    public void decreaseLaneLoad(int laneId) {
+    /**
+     * Admits one vehicle that passed the lane with the given number at a past time, counted
+     * against the lane's rate at that time rather than now; see {@link GateLane#tryAdmitAt}.
+     * Returns null if there is no such lane or it is closed or was full then.
+     */
+    public GateLane admitThroughLaneAt(int laneNumber, long epochMillis) {
+        GateLane lane = laneRepository.getByLaneNumberOrNull(laneNumber);
+        return lane != null && lane.tryAdmitAt(epochMillis) ? lane : null;
+    }
+
+    /**
+     * Atomically admits one vehicle through the lane; fails if the lane is not open or
+     * has already admitted capacityPerMinute vehicles in the last minute. Lane load lives
+     * only in the lane's in-memory limiter, so nothing is written to the repository.
+     */
+    public boolean tryReserveLaneSlot(int laneId) {
         GateLane lane = getLaneById(laneId);
-        lane.decreaseLoad();
+        boolean reserved = lane.tryReserve();
+        if (reserved) {
+            laneSelector.refresh(lane);
+        }
+        return reserved;
+    }
 
-        if (lane.hasCapacity() && lane.getStatus() == LaneStatus.BUSY) {
+    public void releaseLaneSlot(int laneId) {
+        GateLane lane = getLaneById(laneId);
+        lane.release();
+        if (lane.getStoredStatus() == LaneStatus.BUSY && lane.hasCapacity()) {
             lane.setStatus(LaneStatus.OPEN);
+            laneSelector.refresh(laneRepository.update(lane));
         }
-        laneRepository.update(lane);
+    }
+
+    public void increaseLaneLoad(int laneId) {
+        tryReserveLaneSlot(laneId);
+    }
+
+    public void decreaseLaneLoad(int laneId) {
+        releaseLaneSlot(laneId);
     }
 
     public double getLaneUtilization(int laneId) {
         GateLane lane = getLaneById(laneId);
-        return (double) lane.getCurrentLoad() / lane.getCapacityPerMinute() * 100;
+        return (double) lane.getRecentAdmissions() / lane.getCapacityPerMinute() * 100;
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.research.service;
+
+import com.research.exception.BusinessRuleViolationException;
+import com.research.model.GatePass;
+import com.research.model.PassDirection;
+import com.research.model.Vehicle;
+import com.research.service.TrafficMetrics.Operation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous gate-entry processing behind {@link TrafficService}.
+ * Requests flow through four stages connected by bounded queues:
+ * intake (resolve the vehicle), rules (allowed flag, reservation window, lane capacity),
+ * lane assignment (reserve a lane slot and approve) and persistence.
+ * Submitting returns a future immediately; a full intake queue fails the future at once
+ * instead of blocking the terminal, and full downstream queues block the upstream stage.
+ * Each stage worker occupies one executor thread for the pipeline's lifetime.
+ * A request that fails after lane assignment gives its lane slot back; one that
+ * succeeds holds it until {@link TrafficService#completePass}, as a synchronous request
+ * does. Every request is recorded in the service's metrics, from submission to result.
+ * <p>
+ * The console and the terminal server do not use the pipeline: each session makes one
+ * request at a time and waits for its result, so the queues would only add hand-offs.
+ * It is meant for integrations that submit entries without waiting on each, such as
+ * barrier controllers feeding arrivals from several lanes.
+ */
+public class GatePassPipeline implements AutoCloseable {
+    private static final long POLL_MILLIS = 100;
+
+    public enum Stage {
+        INTAKE, RULES, LANE_ASSIGNMENT, PERSISTENCE
+    }
+
+    private final TrafficService trafficService;
+    private final Map<Stage, BlockingQueue<GateRequest>> queues = new EnumMap<>(Stage.class);
+    private final List<ExecutorService> ownedExecutors = new ArrayList<>();
+    // One party for close(), plus one per worker while it runs
+    private final Phaser workers = new Phaser(1);
+    private volatile boolean running = true;
+
+    /**
+     * Runs {@code workersPerStage} workers for each stage on the executor given for that stage.
+     */
+    public GatePassPipeline(TrafficService trafficService, int queueCapacity, int workersPerStage,
+                            Map<Stage, ExecutorService> executors) {
+        this(trafficService, queueCapacity, workersPerStage, executors, false);
+    }
+
+    /**
+     * Single worker per stage, each on a dedicated thread owned and shut down by the pipeline.
+     */
+    public GatePassPipeline(TrafficService trafficService, int queueCapacity) {
+        this(trafficService, queueCapacity, 1, dedicatedExecutors(), true);
+    }
+
+    private GatePassPipeline(TrafficService trafficService, int queueCapacity, int workersPerStage,
+                             Map<Stage, ExecutorService> executors, boolean ownsExecutors) {
+        this.trafficService = trafficService;
+        if (ownsExecutors) {
+            ownedExecutors.addAll(executors.values());
+        }
+        for (Stage stage : Stage.values()) {
+            queues.put(stage, new ArrayBlockingQueue<>(queueCapacity));
+        }
+        for (Stage stage : Stage.values()) {
+            ExecutorService executor = executors.get(stage);
+            if (executor == null) {
+                throw new IllegalArgumentException("No executor configured for stage " + stage);
+            }
+            for (int i = 0; i < workersPerStage; i++) {
+                executor.execute(() -> runStage(stage));
+            }
+        }
+    }
+
+    private static Map<Stage, ExecutorService> dedicatedExecutors() {
+        Map<Stage, ExecutorService> executors = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            executors.put(stage, Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gate-pipeline-" + stage.name().toLowerCase());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        return executors;
+    }
+
+    public CompletableFuture<GatePass> submitEntry(int vehicleId) {
+        return submit(new GateRequest(vehicleId, null), Operation.PIPELINE_ENTRY);
+    }
+
+    public CompletableFuture<GatePass> submitVisitorEntry(String plateNumber) {
+        return submit(new GateRequest(0, plateNumber), Operation.PIPELINE_VISITOR_ENTRY);
+    }
+
+    public int getQueuedRequests(Stage stage) {
+        return queues.get(stage).size();
+    }
+
+    private CompletableFuture<GatePass> submit(GateRequest request, Operation operation) {
+        long start = System.nanoTime();
+        // The caller's future completes once the request is recorded
+        CompletableFuture<GatePass> recorded = request.result.whenComplete(
+                (pass, error) -> trafficService.recordPipelined(operation, start, pass, error));
+        if (!running) {
+            fail(request, shutDown());
+        } else if (!queues.get(Stage.INTAKE).offer(request)) {
+            fail(request, new BusinessRuleViolationException("Gate is saturated, please retry shortly"));
+        }
+        return recorded;
+    }
+
+    private void runStage(Stage stage) {
+        // Registered before reading running, so close() either waits for this worker or it sees the stop
+        workers.register();
+        BlockingQueue<GateRequest> input = queues.get(stage);
+        try {
+            while (running) {
+                GateRequest request = input.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    continue;
+                }
+                try {
+                    process(stage, request);
+                } catch (InterruptedException e) {
+                    fail(request, shutDown());
+                    throw e;
+                } catch (RuntimeException e) {
+                    fail(request, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.arriveAndDeregister();
+        }
+    }
+
+    private void process(Stage stage, GateRequest request) throws InterruptedException {
+        switch (stage) {
+            case INTAKE -> {
+                request.vehicle = request.visitorPlate == null
+                        ? trafficService.resolveVehicle(request.vehicleId)
+                        : new Vehicle(0, request.visitorPlate, null, null, true);
+                forward(Stage.RULES, request);
+            }
+            case RULES -> {
+                if (request.visitorPlate == null) {
+                    trafficService.checkEntryAllowed(request.vehicle);
+                } else {
+                    trafficService.checkVisitorAccess(request.visitorPlate);
+                }
+                trafficService.checkLaneAvailable();
+                forward(Stage.LANE_ASSIGNMENT, request);
+            }
+            case LANE_ASSIGNMENT -> {
+                request.pass = trafficService.admit(request.vehicle, PassDirection.ENTRY);
+                forward(Stage.PERSISTENCE, request);
+            }
+            case PERSISTENCE -> request.result.complete(trafficService.persist(request.pass));
+        }
+    }
+
+    // Blocks while the next stage is full, which pushes back on the upstream stage
+    private void forward(Stage next, GateRequest request) throws InterruptedException {
+        BlockingQueue<GateRequest> queue = queues.get(next);
+        while (!queue.offer(request, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                fail(request, shutDown());
+                return;
+            }
+        }
+    }
+
+    // Only the first failure of a request counts, so its slot is released once
+    private void fail(GateRequest request, RuntimeException error) {
+        if (request.result.completeExceptionally(error) && request.pass != null) {
+            trafficService.releaseAdmission(request.pass);
+        }
+    }
+
+    private static BusinessRuleViolationException shutDown() {
+        return new BusinessRuleViolationException("Gate pipeline is shut down");
+    }
+
+    /**
+     * Stops the stage workers, waits for them to finish the request in hand, then fails
+     * every request still queued.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (ExecutorService executor : ownedExecutors) {
+            executor.shutdown();
+        }
+        workers.awaitAdvance(workers.arrive());
+        for (BlockingQueue<GateRequest> queue : queues.values()) {
+            GateRequest request;
+            while ((request = queue.poll()) != null) {
+                fail(request, shutDown());
+            }
+        }
+    }
+
+    private static final class GateRequest {
+        private final int vehicleId;
+        private final String visitorPlate;
+        private final CompletableFuture<GatePass> result = new CompletableFuture<>();
+        private Vehicle vehicle;
+        private GatePass pass;
+
+        private GateRequest(int vehicleId, String visitorPlate) {
+            this.vehicleId = vehicleId;
+            this.visitorPlate = visitorPlate;
+        }
+    }
+}
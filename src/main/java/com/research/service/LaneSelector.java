@@ -0,0 +1,187 @@
+package com.research.service;
+
+import com.research.model.GateLane;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live priority structure over the open lanes, least utilized first. Utilization is read off
+ * each lane's admission window as the instant its admissions are spaced out to, which is
+ * absolute, so the order does not decay as time passes. The head is published through a
+ * volatile field so selection is an O(1) read; re-ranking a lane after an admission or
+ * status change is O(log n) on an indexed binary heap.
+ */
+public class LaneSelector {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, Slot> slotsByLaneId = new HashMap<>();
+    private Slot[] heap = new Slot[8];
+    private int size;
+    private volatile GateLane head;
+    // Lanes idle since before the selector existed tie here and fall back to lane number order
+    private final long epochNanos = System.nanoTime();
+
+    /**
+     * Least utilized open lane that can admit right now, or null if there is none.
+     */
+    public GateLane select() {
+        GateLane candidate = head;
+        if (candidate == null || (candidate.isOpen() && candidate.hasCapacity())) {
+            return candidate;
+        }
+        // The head may be stale if a lane changed without a refresh; re-rank until it is current
+        lock.lock();
+        try {
+            while (size > 0) {
+                Slot top = heap[0];
+                if (top.lane.isOpen() && top.key == admissionKey(top.lane)) {
+                    break;
+                }
+                refreshLocked(top.lane);
+            }
+            if (size == 0 || heap[0].lane.hasCapacity()) {
+                return head;
+            }
+            // A fuller lane with a higher rate can still have room when the head does not
+            for (int i = 1; i < size; i++) {
+                if (heap[i].lane.hasCapacity()) {
+                    return heap[i].lane;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-ranks the lane after an admission, or a capacity or status change.
+     */
+    public void refresh(GateLane lane) {
+        lock.lock();
+        try {
+            refreshLocked(lane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(int laneId) {
+        lock.lock();
+        try {
+            Slot slot = slotsByLaneId.remove(laneId);
+            if (slot != null) {
+                removeAt(slot.position);
+            }
+            publishHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshLocked(GateLane lane) {
+        Slot slot = slotsByLaneId.get(lane.getId());
+        if (!lane.isOpen()) {
+            if (slot != null) {
+                slotsByLaneId.remove(lane.getId());
+                removeAt(slot.position);
+            }
+        } else if (slot == null) {
+            slot = new Slot(lane);
+            slotsByLaneId.put(lane.getId(), slot);
+            insert(slot);
+        } else {
+            slot.lane = lane;
+            slot.laneNumber = lane.getLaneNumber();
+            slot.key = admissionKey(lane);
+            siftUp(slot.position);
+            siftDown(slot.position);
+        }
+        publishHead();
+    }
+
+    private long admissionKey(GateLane lane) {
+        return Math.max(lane.getAdmittedUntilNanos(), epochNanos);
+    }
+
+    private static boolean before(Slot a, Slot b) {
+        return a.key < b.key || (a.key == b.key && a.laneNumber < b.laneNumber);
+    }
+
+    private void insert(Slot slot) {
+        if (size == heap.length) {
+            Slot[] grown = new Slot[size * 2];
+            System.arraycopy(heap, 0, grown, 0, size);
+            heap = grown;
+        }
+        slot.key = admissionKey(slot.lane);
+        slot.position = size;
+        heap[size++] = slot;
+        siftUp(slot.position);
+    }
+
+    private void removeAt(int position) {
+        Slot last = heap[--size];
+        heap[size] = null;
+        if (position == size) {
+            return;
+        }
+        heap[position] = last;
+        last.position = position;
+        siftDown(position);
+        siftUp(last.position);
+    }
+
+    private void siftUp(int position) {
+        Slot slot = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(slot, heap[parent])) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(slot, position);
+    }
+
+    private void siftDown(int position) {
+        Slot slot = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && before(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!before(heap[child], slot)) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(slot, position);
+    }
+
+    private void place(Slot slot, int position) {
+        heap[position] = slot;
+        slot.position = position;
+    }
+
+    private void publishHead() {
+        head = size == 0 ? null : heap[0].lane;
+    }
+
+    private static final class Slot {
+        private GateLane lane;
+        private long key;
+        private int laneNumber;
+        private int position;
+
+        private Slot(GateLane lane) {
+            this.lane = lane;
+            this.laneNumber = lane.getLaneNumber();
+        }
+    }
+}
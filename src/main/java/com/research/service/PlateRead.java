@@ -0,0 +1,7 @@
+package com.research.service;
+
+/**
+ * One plate read by a gate camera: when, at which lane, and the plate text.
+ */
+public record PlateRead(long timestampMillis, int laneNumber, String plateNumber) {
+}
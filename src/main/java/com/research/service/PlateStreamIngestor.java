@@ -0,0 +1,229 @@
+package com.research.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming ingestion of camera plate reads into gate decisions. Reads arrive as
+ * newline-delimited records {@code timestampMillis,laneNumber,PLATE} from a file or a
+ * socket; each is decided with {@link TrafficService#decidePlateEntry} for the lane and
+ * time of the read, and handed to a listener. Repeat reads of a plate within the dedupe
+ * window of its last read, e.g. a car idling in front of the camera, are dropped rather
+ * than decided again.
+ * <p>
+ * Reads are expected in roughly timestamp order. A read older than the plate's latest
+ * read is compared by its distance to it and never moves it back; plates are forgotten
+ * once their latest read is a window older than the current read, so late reads only
+ * keep stale plates remembered a little longer, within the limit below.
+ * <p>
+ * Memory is bounded whatever the stream: input goes through one fixed buffer, lines longer
+ * than {@value #MAX_LINE_BYTES} bytes are skipped as malformed, and at most
+ * {@code maxTrackedPlates} recent plates are remembered for deduplication, oldest first out.
+ * An ingestor holds the dedupe state of one stream and is not shared between threads.
+ */
+public class PlateStreamIngestor {
+    public static final int MAX_LINE_BYTES = 128;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    @FunctionalInterface
+    public interface DecisionListener {
+        /**
+         * Called for every read that was decided, with its {@link EntryDecision}.
+         */
+        void onDecision(PlateRead read, int decision);
+    }
+
+    private final TrafficService trafficService;
+    private final long dedupeWindowMillis;
+    private final Map<String, Long> lastSeenByPlate;
+
+    public PlateStreamIngestor(TrafficService trafficService, Duration dedupeWindow, int maxTrackedPlates) {
+        if (maxTrackedPlates <= 0) {
+            throw new IllegalArgumentException("maxTrackedPlates must be positive");
+        }
+        this.trafficService = trafficService;
+        this.dedupeWindowMillis = dedupeWindow.toMillis();
+        // Access order keeps plates sorted by last read, so the stale ones sit at the head
+        this.lastSeenByPlate = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxTrackedPlates;
+            }
+        };
+    }
+
+    public IngestStats ingestFile(Path file, DecisionListener listener) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return ingest(in, listener);
+        }
+    }
+
+    /**
+     * Connects to a camera feed and ingests it until the feed closes the connection.
+     */
+    public IngestStats ingestSocket(String host, int port, DecisionListener listener) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            return ingest(socket.getInputStream(), listener);
+        }
+    }
+
+    /**
+     * Ingests the stream until its end. The stream is not closed.
+     */
+    public IngestStats ingest(InputStream in, DecisionListener listener) throws IOException {
+        IngestStats stats = new IngestStats();
+        byte[] buffer = new byte[BUFFER_BYTES];
+        byte[] line = new byte[MAX_LINE_BYTES];
+        int length = 0;
+        boolean overlong = false;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    if (overlong) {
+                        stats.malformed++;
+                    } else {
+                        handleLine(line, length, stats, listener);
+                    }
+                    length = 0;
+                    overlong = false;
+                } else if (length < MAX_LINE_BYTES) {
+                    line[length++] = b;
+                } else {
+                    overlong = true;
+                }
+            }
+        }
+        if (overlong) {
+            stats.malformed++;
+        } else if (length > 0) {
+            handleLine(line, length, stats, listener);
+        }
+        return stats;
+    }
+
+    private void handleLine(byte[] line, int length, IngestStats stats, DecisionListener listener) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0 || line[0] == '#') {
+            return;
+        }
+        PlateRead read = parse(line, length);
+        if (read == null) {
+            stats.malformed++;
+            return;
+        }
+        stats.reads++;
+        if (isRepeat(read)) {
+            stats.duplicates++;
+            return;
+        }
+        int decision = trafficService.decidePlateEntry(read.plateNumber(), read.laneNumber(), read.timestampMillis());
+        stats.decisions[EntryDecision.code(decision)]++;
+        listener.onDecision(read, decision);
+    }
+
+    // timestampMillis,laneNumber,PLATE with the plate upper-cased; null if the line is not a read
+    private static PlateRead parse(byte[] line, int length) {
+        int position = 0;
+        long timestamp = 0;
+        int digits = 0;
+        for (; position < length && line[position] != ','; position++, digits++) {
+            int digit = line[position] - '0';
+            if (digit < 0 || digit > 9 || digits == 18) {
+                return null;
+            }
+            timestamp = timestamp * 10 + digit;
+        }
+        if (digits == 0 || position++ == length) {
+            return null;
+        }
+        int lane = 0;
+        digits = 0;
+        for (; position < length && line[position] != ','; position++, digits++) {
+            int digit = line[position] - '0';
+            if (digit < 0 || digit > 9 || digits == 9) {
+                return null;
+            }
+            lane = lane * 10 + digit;
+        }
+        if (digits == 0 || position++ == length) {
+            return null;
+        }
+        int plateStart = position;
+        for (; position < length; position++) {
+            byte b = line[position];
+            if (b >= 'a' && b <= 'z') {
+                line[position] = (byte) (b - ('a' - 'A'));
+            } else if (b <= ' ' || b == ',' || b < 0) {
+                return null;
+            }
+        }
+        if (position == plateStart) {
+            return null;
+        }
+        return new PlateRead(timestamp, lane,
+                new String(line, plateStart, position - plateStart, StandardCharsets.US_ASCII));
+    }
+
+    private boolean isRepeat(PlateRead read) {
+        long at = read.timestampMillis();
+        Iterator<Long> oldest = lastSeenByPlate.values().iterator();
+        while (oldest.hasNext() && at - oldest.next() >= dedupeWindowMillis) {
+            oldest.remove();
+        }
+        Long previous = lastSeenByPlate.get(read.plateNumber());
+        if (previous == null) {
+            lastSeenByPlate.put(read.plateNumber(), at);
+            return false;
+        }
+        lastSeenByPlate.put(read.plateNumber(), Math.max(previous, at));
+        return Math.abs(at - previous) < dedupeWindowMillis;
+    }
+
+    /**
+     * Counts for one ingested stream.
+     */
+    public static final class IngestStats {
+        private long reads;
+        private long duplicates;
+        private long malformed;
+        private final long[] decisions = new long[EntryDecision.NO_LANE_AVAILABLE + 1];
+
+        /**
+         * Well-formed reads, including the duplicates that were dropped.
+         */
+        public long getReads() { return reads; }
+        public long getDuplicates() { return duplicates; }
+        public long getMalformed() { return malformed; }
+
+        public long getDecided() {
+            return reads - duplicates;
+        }
+
+        /**
+         * Reads decided with the given {@link EntryDecision} code.
+         */
+        public long getDecisions(int code) {
+            return decisions[code];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("IngestStats{reads=%d, duplicates=%d, malformed=%d, admitted=%d, notFound=%d, "
+                            + "notAllowed=%d, noLane=%d}", reads, duplicates, malformed,
+                    decisions[EntryDecision.ADMITTED], decisions[EntryDecision.VEHICLE_NOT_FOUND],
+                    decisions[EntryDecision.VEHICLE_NOT_ALLOWED], decisions[EntryDecision.NO_LANE_AVAILABLE]);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.research.service;
+
+import com.research.model.PassStatus;
+import com.research.util.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome recorders for the gate operations of {@link TrafficService}.
+ * Every recorder is striped ({@link LatencyHistogram}, {@link LongAdder}), so concurrent
+ * terminals record without contending, and {@link #snapshot()} can be read at any time
+ * without pausing traffic.
+ */
+public class TrafficMetrics {
+
+    public enum Operation {
+        REQUEST_ENTRY, REQUEST_EXIT, REQUEST_VISITOR_ENTRY, APPROVE_PASS, DENY_PASS, COMPLETE_PASS,
+        DECIDE_ENTRY, DECIDE_PLATE_ENTRY, PIPELINE_ENTRY, PIPELINE_VISITOR_ENTRY
+    }
+
+    /**
+     * An operation that went through counts under the status it left the pass in:
+     * PENDING, APPROVED (or admitted by a fast-path decision), DENIED or COMPLETED.
+     * REJECTED: refused by a business or validation rule. NO_LANE: no lane could take the
+     * vehicle. NOT_FOUND: vehicle, reservation or pass unknown.
+     */
+    public enum Outcome {
+        PENDING, APPROVED, DENIED, COMPLETED, REJECTED, NO_LANE, NOT_FOUND;
+
+        public static Outcome of(PassStatus status) {
+            return switch (status) {
+                case PENDING -> PENDING;
+                case APPROVED -> APPROVED;
+                case DENIED -> DENIED;
+                case COMPLETED -> COMPLETED;
+            };
+        }
+    }
+
+    private final long startedAtNanos = System.nanoTime();
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder[][] outcomes = new LongAdder[Operation.values().length][Outcome.values().length];
+    private final ConcurrentHashMap<Integer, LongAdder> completedByLane = new ConcurrentHashMap<>();
+
+    public TrafficMetrics() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            for (Outcome outcome : Outcome.values()) {
+                outcomes[operation.ordinal()][outcome.ordinal()] = new LongAdder();
+            }
+        }
+    }
+
+    public void record(Operation operation, Outcome outcome, long latencyNanos) {
+        latencies.get(operation).record(latencyNanos);
+        outcomes[operation.ordinal()][outcome.ordinal()].increment();
+    }
+
+    /**
+     * Counts a pass that went through the lane.
+     */
+    public void recordLanePass(int laneNumber) {
+        completedByLane.computeIfAbsent(laneNumber, lane -> new LongAdder()).increment();
+    }
+
+    public Snapshot snapshot() {
+        Map<Operation, LatencyHistogram.Snapshot> latencySnapshots = new EnumMap<>(Operation.class);
+        Map<Operation, Map<Outcome, Long>> outcomeCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencySnapshots.put(operation, latencies.get(operation).snapshot());
+            Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, outcomes[operation.ordinal()][outcome.ordinal()].sum());
+            }
+            outcomeCounts.put(operation, Collections.unmodifiableMap(counts));
+        }
+        Map<Integer, Long> lanes = new TreeMap<>();
+        completedByLane.forEach((lane, count) -> lanes.put(lane, count.sum()));
+        return new Snapshot(System.nanoTime() - startedAtNanos, Collections.unmodifiableMap(latencySnapshots),
+                Collections.unmodifiableMap(outcomeCounts), Collections.unmodifiableMap(lanes));
+    }
+
+    /**
+     * Metrics since the service started; lane throughput is completed passes per lane number.
+     */
+    public record Snapshot(long uptimeNanos,
+                           Map<Operation, LatencyHistogram.Snapshot> latencies,
+                           Map<Operation, Map<Outcome, Long>> outcomes,
+                           Map<Integer, Long> completedPassesByLane) {
+
+        public long count(Operation operation, Outcome outcome) {
+            return outcomes.get(operation).get(outcome);
+        }
+
+        public double lanePassesPerMinute(int laneNumber) {
+            double minutes = uptimeNanos / 60e9;
+            return minutes == 0 ? 0 : completedPassesByLane.getOrDefault(laneNumber, 0L) / minutes;
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package com.research.service;
 
 import com.research.exception.BusinessRuleViolationException;
+import com.research.exception.NoLaneAvailableException;
 import com.research.exception.NotFoundException;
 import com.research.model.*;
+import com.research.persistence.ArchivedPass;
 import com.research.repository.GatePassRepository;
 import com.research.repository.VehicleRepository;
 import com.research.repository.VisitReservationRepository;
+import com.research.service.TrafficMetrics.Operation;
+import com.research.service.TrafficMetrics.Outcome;
+import com.research.util.EpochClock;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class TrafficService {
+    // Plate reads within this much of now are live and use the lanes' live capacity
+    private static final long LIVE_READ_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
     private final GatePassRepository passRepository;
     private final VehicleRepository vehicleRepository;
     private final GateLaneService laneService;
     private final VisitReservationRepository reservationRepository;
     private final ValidationService validationService;
+    private final TrafficMetrics metrics = new TrafficMetrics();
 
     public TrafficService(GatePassRepository passRepository,
                           VehicleRepository vehicleRepository,
@@ -30,117 +50,385 @@ public class TrafficService {
     }
 
     public GatePass requestEntry(int vehicleId) {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId)
-                .orElseThrow(() -> new NotFoundException("Vehicle", vehicleId));
+        return measured(Operation.REQUEST_ENTRY, () -> {
+            Vehicle vehicle = resolveVehicle(vehicleId);
+            checkEntryAllowed(vehicle);
+
+            GateLane lane = laneService.getAvailableLane()
+                    .orElseThrow(() -> new NoLaneAvailableException("No available lanes for entry"));
+
+            GatePass gatePass = new GatePass(0, vehicle, lane, PassDirection.ENTRY);
+            return passRepository.save(gatePass);
+        });
+    }
+
+    /**
+     * Fast path for a registered vehicle driving up: checks it and admits it straight
+     * through the least utilized lane, returning an {@link EntryDecision} code. No gate pass
+     * is created and nothing is allocated, so failures carry a code rather than an exception.
+     */
+    public int decideEntry(int vehicleId) {
+        long start = System.nanoTime();
+        return recordDecision(Operation.DECIDE_ENTRY, start, decideVehicle(vehicleRepository.getByIdOrNull(vehicleId)));
+    }
+
+    /**
+     * Fast path for a plate read by the camera of a lane: a registered vehicle is checked
+     * as in {@link #decideEntry}; any other plate is admitted if one of its visit
+     * reservation windows covers the read time, refused as not allowed if it has
+     * reservations but none covers it, and as not found otherwise. Admission goes through
+     * the lane that read the plate and counts against that lane's capacity at the read time:
+     * live reads use the lane's live capacity, older ones (a replayed file) the lane's rate
+     * over their own timeline. A missing, closed or full lane gives
+     * {@link EntryDecision#NO_LANE_AVAILABLE}. No gate pass is created.
+     */
+    public int decidePlateEntry(String plateNumber, int laneNumber, long readAtMillis) {
+        long start = System.nanoTime();
+        Vehicle vehicle = vehicleRepository.getByPlateNumberOrNull(plateNumber);
+        int decision;
+        if (vehicle != null) {
+            decision = vehicle.isAllowed()
+                    ? admittedThrough(admitThroughLane(laneNumber, readAtMillis)) : EntryDecision.VEHICLE_NOT_ALLOWED;
+        } else if (!reservationRepository.isAdmissibleAt(plateNumber, readAtMillis)) {
+            decision = reservationRepository.findByVehiclePlate(plateNumber).isPresent()
+                    ? EntryDecision.VEHICLE_NOT_ALLOWED : EntryDecision.VEHICLE_NOT_FOUND;
+        } else {
+            decision = admittedThrough(admitThroughLane(laneNumber, readAtMillis));
+        }
+        return recordDecision(Operation.DECIDE_PLATE_ENTRY, start, decision);
+    }
 
+    private GateLane admitThroughLane(int laneNumber, long readAtMillis) {
+        return Math.abs(readAtMillis - EpochClock.now()) <= LIVE_READ_MILLIS
+                ? laneService.admitThroughLane(laneNumber)
+                : laneService.admitThroughLaneAt(laneNumber, readAtMillis);
+    }
+
+    private int decideVehicle(Vehicle vehicle) {
+        if (vehicle == null) {
+            return EntryDecision.VEHICLE_NOT_FOUND;
+        }
         if (!vehicle.isAllowed()) {
-            throw new BusinessRuleViolationException("Vehicle " + vehicle.getPlateNumber() + " is not allowed to enter");
+            return EntryDecision.VEHICLE_NOT_ALLOWED;
         }
+        return admittedThrough(laneService.admitThroughAvailableLane());
+    }
 
-        GateLane lane = laneService.getAvailableLane()
-                .orElseThrow(() -> new BusinessRuleViolationException("No available lanes for entry"));
+    private static int admittedThrough(GateLane lane) {
+        return lane == null ? EntryDecision.NO_LANE_AVAILABLE : EntryDecision.admitted(lane.getLaneNumber());
+    }
+
+    /**
+     * Entry requests for a burst of arrivals. Vehicles are resolved up front, spread over
+     * the open lanes by remaining per-minute capacity, and all passes are saved in one
+     * batch. Vehicles that cannot enter are reported in the result instead of aborting
+     * the batch; repeated ids are handled once.
+     */
+    public BatchEntryResult requestEntries(Collection<Integer> vehicleIds) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        List<Vehicle> admissible = new ArrayList<>();
+        for (int vehicleId : new LinkedHashSet<>(vehicleIds)) {
+            Vehicle vehicle = vehicleRepository.findById(vehicleId).orElse(null);
+            if (vehicle == null) {
+                failures.put(vehicleId, "Vehicle with ID " + vehicleId + " not found");
+            } else if (!vehicle.isAllowed()) {
+                failures.put(vehicleId, "Vehicle " + vehicle.getPlateNumber() + " is not allowed to enter");
+            } else {
+                admissible.add(vehicle);
+            }
+        }
 
-        GatePass gatePass = new GatePass(0, vehicle, lane, PassDirection.ENTRY);
-        return passRepository.save(gatePass);
+        // Lanes with the most remaining capacity take the next vehicle
+        PriorityQueue<LaneHeadroom> lanes = new PriorityQueue<>(
+                Comparator.comparingInt(LaneHeadroom::remaining).reversed()
+                        .thenComparingInt(headroom -> headroom.lane().getLaneNumber()));
+        for (GateLane lane : laneService.getAvailableLanes()) {
+            lanes.add(new LaneHeadroom(lane, lane.getRemainingCapacity()));
+        }
+
+        List<GatePass> passes = new ArrayList<>(admissible.size());
+        for (Vehicle vehicle : admissible) {
+            LaneHeadroom headroom = lanes.poll();
+            if (headroom == null || headroom.remaining() <= 0) {
+                failures.put(vehicle.getId(), "No available lanes for entry");
+                continue;
+            }
+            passes.add(new GatePass(0, vehicle, headroom.lane(), PassDirection.ENTRY));
+            lanes.add(new LaneHeadroom(headroom.lane(), headroom.remaining() - 1));
+        }
+
+        return new BatchEntryResult(passRepository.saveAll(passes), failures);
+    }
+
+    private record LaneHeadroom(GateLane lane, int remaining) {
     }
 
     public GatePass requestExit(int vehicleId) {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId)
-                .orElseThrow(() -> new NotFoundException("Vehicle", vehicleId));
+        return measured(Operation.REQUEST_EXIT, () -> {
+            Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                    .orElseThrow(() -> new NotFoundException("Vehicle", vehicleId));
 
-        GateLane lane = laneService.getAvailableLane()
-                .orElseThrow(() -> new BusinessRuleViolationException("No available lanes for exit"));
+            GateLane lane = laneService.getAvailableLane()
+                    .orElseThrow(() -> new NoLaneAvailableException("No available lanes for exit"));
 
-        GatePass gatePass = new GatePass(0, vehicle, lane, PassDirection.EXIT);
-        return passRepository.save(gatePass);
+            GatePass gatePass = new GatePass(0, vehicle, lane, PassDirection.EXIT);
+            return passRepository.save(gatePass);
+        });
     }
 
     public GatePass requestVisitorEntry(String plateNumber) {
-        validationService.validatePlateNumber(plateNumber);
+        return measured(Operation.REQUEST_VISITOR_ENTRY, () -> {
+            checkVisitorAccess(plateNumber);
+
+            // Visitors are approved on arrival, so the lane slot is reserved now and released by completePass
+            Vehicle tempVehicle = new Vehicle(0, plateNumber, null, null, true);
+            GatePass gatePass = admit(tempVehicle, PassDirection.ENTRY);
+            try {
+                return passRepository.save(gatePass);
+            } catch (RuntimeException e) {
+                releaseAdmission(gatePass);
+                throw e;
+            }
+        });
+    }
+
+    public GatePass approvePass(int passId) {
+        return measured(Operation.APPROVE_PASS, () -> {
+            GatePass pass = passRepository.findById(passId)
+                    .orElseThrow(() -> new NotFoundException("GatePass", passId));
+
+            if (pass.getStatus() != PassStatus.PENDING) {
+                throw new BusinessRuleViolationException("Cannot approve non-pending pass");
+            }
+
+            int laneId = pass.getLane().getId();
+            if (!laneService.tryReserveLaneSlot(laneId)) {
+                throw new NoLaneAvailableException("Lane is not available");
+            }
+
+            if (!pass.transitionStatus(PassStatus.PENDING, PassStatus.APPROVED)) {
+                // Another terminal decided this pass first; give the slot back
+                laneService.releaseLaneSlot(laneId);
+                throw new BusinessRuleViolationException("Cannot approve non-pending pass");
+            }
+
+            return passRepository.update(pass);
+        });
+    }
 
-        // Check for valid reservation
-        VisitReservation reservation = reservationRepository.findByVehiclePlate(plateNumber)
-                .orElseThrow(() -> new NotFoundException("Visit reservation for plate", plateNumber));
+    public GatePass denyPass(int passId) {
+        return measured(Operation.DENY_PASS, () -> {
+            GatePass pass = passRepository.findById(passId)
+                    .orElseThrow(() -> new NotFoundException("GatePass", passId));
 
-        if (!reservation.isValidForAccess(LocalDateTime.now())) {
-            throw new BusinessRuleViolationException("Visitor access not allowed at this time");
-        }
+            if (!pass.transitionStatus(PassStatus.PENDING, PassStatus.DENIED)) {
+                throw new BusinessRuleViolationException("Cannot deny non-pending pass");
+            }
+
+            return passRepository.closePass(pass);
+        });
+    }
+
+    public GatePass completePass(int passId) {
+        return measured(Operation.COMPLETE_PASS, () -> {
+            GatePass pass = passRepository.findById(passId)
+                    .orElseThrow(() -> new NotFoundException("GatePass", passId));
 
-        GateLane lane = laneService.getAvailableLane()
-                .orElseThrow(() -> new BusinessRuleViolationException("No available lanes for visitor entry"));
+            if (!pass.transitionStatus(PassStatus.APPROVED, PassStatus.COMPLETED)) {
+                throw new BusinessRuleViolationException("Cannot complete non-approved pass");
+            }
 
-        // Create temporary vehicle for visitor
-        Vehicle tempVehicle = new Vehicle(0, plateNumber, null, null, true);
-        GatePass gatePass = new GatePass(0, tempVehicle, lane, PassDirection.ENTRY);
-        gatePass.setStatus(PassStatus.APPROVED);
+            laneService.releaseLaneSlot(pass.getLane().getId());
+            metrics.recordLanePass(pass.getLane().getLaneNumber());
 
-        return passRepository.save(gatePass);
+            return passRepository.closePass(pass);
+        });
     }
 
-    public GatePass approvePass(int passId) {
-        GatePass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new NotFoundException("GatePass", passId));
+    public TrafficMetrics.Snapshot getMetrics() {
+        return metrics.snapshot();
+    }
 
-        if (pass.getStatus() != PassStatus.PENDING) {
-            throw new BusinessRuleViolationException("Cannot approve non-pending pass");
+    // Successful operations count under the status they leave the pass in
+    private GatePass measured(Operation operation, Supplier<GatePass> call) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.REJECTED;
+        try {
+            GatePass pass = call.get();
+            outcome = Outcome.of(pass.getStatus());
+            return pass;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            metrics.record(operation, outcome, System.nanoTime() - start);
         }
+    }
 
-        if (pass.getLane().getStatus() != LaneStatus.OPEN) {
-            throw new BusinessRuleViolationException("Lane is not available");
-        }
+    /**
+     * Records a request that went through {@link GatePassPipeline}, from submission to its result.
+     */
+    void recordPipelined(Operation operation, long start, GatePass pass, Throwable error) {
+        metrics.record(operation, error == null ? Outcome.of(pass.getStatus()) : outcomeOf(error),
+                System.nanoTime() - start);
+    }
 
-        pass.setStatus(PassStatus.APPROVED);
-        laneService.increaseLaneLoad(pass.getLane().getId());
+    private static Outcome outcomeOf(Throwable error) {
+        if (error instanceof NotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        return error instanceof NoLaneAvailableException ? Outcome.NO_LANE : Outcome.REJECTED;
+    }
 
-        return passRepository.update(pass);
+    private int recordDecision(Operation operation, long start, int decision) {
+        Outcome outcome = switch (EntryDecision.code(decision)) {
+            case EntryDecision.ADMITTED -> Outcome.APPROVED;
+            case EntryDecision.VEHICLE_NOT_FOUND -> Outcome.NOT_FOUND;
+            case EntryDecision.NO_LANE_AVAILABLE -> Outcome.NO_LANE;
+            default -> Outcome.REJECTED;
+        };
+        metrics.record(operation, outcome, System.nanoTime() - start);
+        return decision;
     }
 
-    public GatePass denyPass(int passId) {
-        GatePass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new NotFoundException("GatePass", passId));
+    // Steps shared by the synchronous requests and GatePassPipeline stages
+
+    Vehicle resolveVehicle(int vehicleId) {
+        return vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new NotFoundException("Vehicle", vehicleId));
+    }
 
-        if (pass.getStatus() != PassStatus.PENDING) {
-            throw new BusinessRuleViolationException("Cannot deny non-pending pass");
+    void checkEntryAllowed(Vehicle vehicle) {
+        if (!vehicle.isAllowed()) {
+            throw new BusinessRuleViolationException("Vehicle " + vehicle.getPlateNumber() + " is not allowed to enter");
         }
+    }
 
-        pass.setStatus(PassStatus.DENIED);
-        return passRepository.update(pass);
+    void checkVisitorAccess(String plateNumber) {
+        validationService.validatePlateNumber(plateNumber);
+
+        if (!reservationRepository.isAdmissible(plateNumber)) {
+            // Only refusals pay for telling an unknown plate from one outside its window
+            if (reservationRepository.findByVehiclePlate(plateNumber).isEmpty()) {
+                throw new NotFoundException("Visit reservation for plate", plateNumber);
+            }
+            throw new BusinessRuleViolationException("Visitor access not allowed at this time");
+        }
     }
 
-    public GatePass completePass(int passId) {
-        GatePass pass = passRepository.findById(passId)
-                .orElseThrow(() -> new NotFoundException("GatePass", passId));
+    void checkLaneAvailable() {
+        if (laneService.getAvailableLane().isEmpty()) {
+            throw new NoLaneAvailableException("No available lanes for entry");
+        }
+    }
 
-        if (pass.getStatus() != PassStatus.APPROVED) {
-            throw new BusinessRuleViolationException("Cannot complete non-approved pass");
+    /**
+     * Picks a lane and reserves a slot on it, returning an approved but unsaved pass.
+     * Retries when another terminal takes the last slot between selection and reservation.
+     */
+    GatePass admit(Vehicle vehicle, PassDirection direction) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            GateLane lane = laneService.getAvailableLane()
+                    .orElseThrow(() -> new NoLaneAvailableException("No available lanes for entry"));
+            if (laneService.tryReserveLaneSlot(lane.getId())) {
+                GatePass pass = new GatePass(0, vehicle, lane, direction);
+                pass.setStatus(PassStatus.APPROVED);
+                return pass;
+            }
         }
+        throw new NoLaneAvailableException("No available lanes for entry");
+    }
 
-        pass.setStatus(PassStatus.COMPLETED);
-        laneService.decreaseLaneLoad(pass.getLane().getId());
+    GatePass persist(GatePass pass) {
+        return passRepository.save(pass);
+    }
 
-        return passRepository.update(pass);
+    /**
+     * Gives back the lane slot of a pass from {@link #admit} that will not be persisted.
+     */
+    void releaseAdmission(GatePass pass) {
+        laneService.releaseLaneSlot(pass.getLane().getId());
     }
 
+    /**
+     * Live passes followed by the archived ones.
+     */
     public List<GatePass> getAllPasses() {
-        return passRepository.findAll();
+        List<GatePass> passes = passRepository.findAll();
+        for (ArchivedPass archived : passRepository.findAllArchived()) {
+            passes.add(restore(archived));
+        }
+        return passes;
     }
 
     public List<GatePass> getPendingPasses() {
         return passRepository.findPendingPasses();
     }
 
+    public List<GatePass> getPassesByStatus(PassStatus status) {
+        return passRepository.findByStatus(status);
+    }
+
+    /**
+     * Live and archived passes through the lane, oldest first.
+     */
     public List<GatePass> getPassesByLane(int laneId) {
-        return passRepository.findByLaneId(laneId);
+        return merged(passRepository.findByLaneId(laneId), passRepository.findArchivedByLaneId(laneId));
+    }
+
+    /**
+     * Live and archived passes through the lane with passTime in [start, end], oldest first.
+     */
+    public List<GatePass> getPassesByLaneBetween(int laneId, LocalDateTime start, LocalDateTime end) {
+        return merged(passRepository.findByLaneIdBetween(laneId, start, end),
+                passRepository.findArchivedByLaneIdBetween(laneId, start, end));
     }
 
+    /**
+     * Live and archived passes of the vehicle, oldest first.
+     */
     public List<GatePass> getPassesByVehicle(int vehicleId) {
-        return passRepository.findByVehicleId(vehicleId);
+        return merged(passRepository.findByVehicleId(vehicleId), passRepository.findArchivedByVehicleId(vehicleId));
+    }
+
+    private List<GatePass> merged(List<GatePass> live, List<ArchivedPass> archived) {
+        List<GatePass> passes = new ArrayList<>(live.size() + archived.size());
+        passes.addAll(live);
+        for (ArchivedPass pass : archived) {
+            passes.add(restore(pass));
+        }
+        passes.sort(Comparator.comparingLong(GatePass::getPassTimeMillis));
+        return passes;
+    }
+
+    // The archive keeps ids only: the vehicle and lane are looked up again, with
+    // stand-ins for visitors' temporary vehicles and for records deleted since
+    private GatePass restore(ArchivedPass archived) {
+        Vehicle vehicle = vehicleRepository.getByIdOrNull(archived.vehicleId());
+        if (vehicle == null) {
+            vehicle = new Vehicle(archived.vehicleId(), archived.vehicleId() == 0 ? "VISITOR" : "UNKNOWN",
+                    null, null, false);
+        }
+        GateLane lane = laneService.findLane(archived.laneId())
+                .orElseGet(() -> new GateLane(archived.laneId(), archived.laneId(), 0, LaneStatus.CLOSED));
+        GatePass pass = new GatePass(archived.id(), vehicle, lane, archived.direction());
+        pass.setStatus(archived.status());
+        pass.setPassTimeMillis(TimeUnit.SECONDS.toMillis(archived.passTimeEpochSecond()));
+        pass.setCreatedAtMillis(pass.getPassTimeMillis());
+        pass.setUpdatedAtMillis(TimeUnit.SECONDS.toMillis(archived.closedAtEpochSecond()));
+        return pass;
+    }
+
+    /**
+     * Passes per lane and hour of the given day: {@code counts.get(laneId)[hour]}, for the
+     * lanes with traffic that day.
+     */
+    public Map<Integer, int[]> getHourlyLaneTraffic(LocalDate day) {
+        long dayStart = day.atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        return passRepository.getHistory().countByLaneAndHour(dayStart, dayStart + TimeUnit.DAYS.toSeconds(1));
     }
 
     public int getLaneTrafficCount(int laneId, LocalDateTime start, LocalDateTime end) {
-        return (int) passRepository.findAll().stream()
-                .filter(pass -> pass.getLane().getId() == laneId)
-                .filter(pass -> !pass.getPassTime().isBefore(start) && !pass.getPassTime().isAfter(end))
-                .count();
+        return passRepository.countByLaneIdBetween(laneId, start, end);
     }
 }
\ No newline at end of file
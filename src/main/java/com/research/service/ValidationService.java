@@ -1,6 +1,7 @@
 package com.research.service;
 
 import com.research.exception.ValidationException;
+import com.research.util.EpochClock;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -60,7 +61,7 @@ public class ValidationService {
     }
 
     public void validateFutureDate(LocalDate date, String fieldName) {
-        if (date.isBefore(LocalDate.now())) {
+        if (date.isBefore(EpochClock.toLocalDateTime(EpochClock.now()).toLocalDate())) {
             throw new ValidationException(fieldName + " must be in the future");
         }
     }
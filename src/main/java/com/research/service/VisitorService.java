@@ -27,13 +27,7 @@ public class VisitorService {
         validationService.validatePassengers(numberOfPassengers);
 
         // Check for existing reservation for same vehicle on same date
-        List<VisitReservation> existingReservations = reservationRepository.findAll().stream()
-                .filter(r -> r.getVehiclePlate().equalsIgnoreCase(vehiclePlate))
-                .filter(r -> r.getVisitDate().equals(visitDate))
-                .filter(r -> !r.isCancelled())
-                .toList();
-
-        if (!existingReservations.isEmpty()) {
+        if (reservationRepository.existsByVehiclePlateAndDate(vehiclePlate, visitDate)) {
             throw new BusinessRuleViolationException("Vehicle already has a reservation for this date");
         }
 
@@ -58,9 +52,7 @@ public class VisitorService {
     }
 
     public boolean validateVisitorAccess(String vehiclePlate) {
-        return reservationRepository.findByVehiclePlate(vehiclePlate)
-                .map(reservation -> reservation.isValidForAccess(java.time.LocalDateTime.now()))
-                .orElse(false);
+        return reservationRepository.isAdmissible(vehiclePlate);
     }
 
     public List<VisitReservation> getActiveReservations() {
@@ -3,17 +3,23 @@ package com.research.ui;
 import com.research.exception.CompoundGateException;
 import com.research.model.*;
 import com.research.service.*;
+import com.research.util.LatencyHistogram;
 
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 public class ConsoleUI {
     private final Scanner scanner;
+    private final PrintStream out;
     private final ResidentService residentService;
     private final VehicleService vehicleService;
     private final GateLaneService laneService;
@@ -28,14 +34,29 @@ public class ConsoleUI {
     public ConsoleUI(ResidentService residentService, VehicleService vehicleService,
                      GateLaneService laneService, TrafficService trafficService,
                      VisitorService visitorService, ValidationService validationService) {
-        this.scanner = new Scanner(System.in);
+        this(residentService, vehicleService, laneService, trafficService, visitorService, validationService,
+                System.in, System.out, true);
+    }
+
+    /**
+     * Session over arbitrary streams, e.g. a remote terminal connection. Sessions sharing
+     * one set of services should pass {@code loadSampleData = false}.
+     */
+    public ConsoleUI(ResidentService residentService, VehicleService vehicleService,
+                     GateLaneService laneService, TrafficService trafficService,
+                     VisitorService visitorService, ValidationService validationService,
+                     InputStream in, PrintStream out, boolean loadSampleData) {
+        this.scanner = new Scanner(in);
+        this.out = out;
         this.residentService = residentService;
         this.vehicleService = vehicleService;
         this.laneService = laneService;
         this.trafficService = trafficService;
         this.visitorService = visitorService;
         this.validationService = validationService;
-        initializeSampleData();
+        if (loadSampleData) {
+            initializeSampleData();
+        }
     }
 
     private void initializeSampleData() {
@@ -62,32 +83,37 @@ public class ConsoleUI {
             visitorService.createReservation(1, "Visitor One", "VIS-001", tomorrow, LocalTime.of(14, 0), 2);
 
         } catch (Exception e) {
-            System.out.println("Warning: Could not initialize sample data: " + e.getMessage());
+            out.println("Warning: Could not initialize sample data: " + e.getMessage());
         }
     }
 
     public void start() {
-        System.out.println("=== Compound Gate Traffic Management System ===");
-        System.out.println("Welcome, Administrator!");
+        out.println("=== Compound Gate Traffic Management System ===");
+        out.println("Welcome, Administrator!");
 
-        while (running) {
-            showMainMenu();
+        try {
+            while (running) {
+                showMainMenu();
+            }
+        } catch (NoSuchElementException e) {
+            // Input closed, e.g. the terminal disconnected
+            running = false;
         }
 
         scanner.close();
-        System.out.println("System shutdown. Goodbye!");
+        out.println("System shutdown. Goodbye!");
     }
 
     private void showMainMenu() {
-        System.out.println("\n=== MAIN MENU ===");
-        System.out.println("1. Resident Management");
-        System.out.println("2. Vehicle Management");
-        System.out.println("3. Gate Lane Management");
-        System.out.println("4. Traffic Management");
-        System.out.println("5. Visitor Management");
-        System.out.println("6. Driver Operations");
-        System.out.println("0. Exit");
-        System.out.print("Enter your choice: ");
+        out.println("\n=== MAIN MENU ===");
+        out.println("1. Resident Management");
+        out.println("2. Vehicle Management");
+        out.println("3. Gate Lane Management");
+        out.println("4. Traffic Management");
+        out.println("5. Visitor Management");
+        out.println("6. Driver Operations");
+        out.println("0. Exit");
+        out.print("Enter your choice: ");
 
         try {
             int choice = scanner.nextInt();
@@ -101,10 +127,10 @@ public class ConsoleUI {
                 case 5 -> showVisitorMenu();
                 case 6 -> showDriverMenu();
                 case 0 -> running = false;
-                default -> System.out.println("Invalid choice. Please try again.");
+                default -> out.println("Invalid choice. Please try again.");
             }
         } catch (InputMismatchException e) {
-            System.out.println("Invalid input. Please enter a number.");
+            out.println("Invalid input. Please enter a number.");
             scanner.nextLine(); // Clear invalid input
         } catch (Exception e) {
             handleException(e);
@@ -114,14 +140,14 @@ public class ConsoleUI {
     private void showResidentMenu() {
         boolean back = false;
         while (!back) {
-            System.out.println("\n=== RESIDENT MANAGEMENT ===");
-            System.out.println("1. Add Resident");
-            System.out.println("2. View All Residents");
-            System.out.println("3. Update Resident");
-            System.out.println("4. Delete Resident");
-            System.out.println("5. Search Resident");
-            System.out.println("0. Back to Main Menu");
-            System.out.print("Enter your choice: ");
+            out.println("\n=== RESIDENT MANAGEMENT ===");
+            out.println("1. Add Resident");
+            out.println("2. View All Residents");
+            out.println("3. Update Resident");
+            out.println("4. Delete Resident");
+            out.println("5. Search Resident");
+            out.println("0. Back to Main Menu");
+            out.print("Enter your choice: ");
 
             try {
                 int choice = scanner.nextInt();
@@ -134,10 +160,10 @@ public class ConsoleUI {
                     case 4 -> deleteResident();
                     case 5 -> searchResident();
                     case 0 -> back = true;
-                    default -> System.out.println("Invalid choice.");
+                    default -> out.println("Invalid choice.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("Invalid input. Please enter a number.");
+                out.println("Invalid input. Please enter a number.");
                 scanner.nextLine();
             } catch (Exception e) {
                 handleException(e);
@@ -146,89 +172,89 @@ public class ConsoleUI {
     }
 
     private void addResident() {
-        System.out.println("\n--- Add New Resident ---");
+        out.println("\n--- Add New Resident ---");
 
         try {
-            System.out.print("Enter resident ID: ");
+            out.print("Enter resident ID: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Enter full name: ");
+            out.print("Enter full name: ");
             String name = scanner.nextLine();
 
-            System.out.print("Enter email: ");
+            out.print("Enter email: ");
             String email = scanner.nextLine();
 
-            System.out.print("Enter phone: ");
+            out.print("Enter phone: ");
             String phone = scanner.nextLine();
 
-            System.out.print("Enter unit number: ");
+            out.print("Enter unit number: ");
             String unit = scanner.nextLine();
 
             Resident resident = residentService.addResident(id, name, email, phone, unit);
-            System.out.println("Resident added successfully: " + resident);
+            out.println("Resident added successfully: " + resident);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewAllResidents() {
-        System.out.println("\n--- All Residents ---");
+        out.println("\n--- All Residents ---");
         List<Resident> residents = residentService.getAllResidents();
 
         if (residents.isEmpty()) {
-            System.out.println("No residents found.");
+            out.println("No residents found.");
         } else {
             for (Resident resident : residents) {
-                System.out.println(resident);
+                out.println(resident);
             }
-            System.out.println("Total: " + residents.size() + " residents");
+            out.println("Total: " + residents.size() + " residents");
         }
     }
 
     private void updateResident() {
-        System.out.println("\n--- Update Resident ---");
+        out.println("\n--- Update Resident ---");
 
         try {
-            System.out.print("Enter resident ID to update: ");
+            out.print("Enter resident ID to update: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Enter new full name: ");
+            out.print("Enter new full name: ");
             String name = scanner.nextLine();
 
-            System.out.print("Enter new email: ");
+            out.print("Enter new email: ");
             String email = scanner.nextLine();
 
-            System.out.print("Enter new phone: ");
+            out.print("Enter new phone: ");
             String phone = scanner.nextLine();
 
-            System.out.print("Enter new unit number: ");
+            out.print("Enter new unit number: ");
             String unit = scanner.nextLine();
 
             Resident updated = residentService.updateResident(id, name, email, phone, unit);
-            System.out.println("Resident updated successfully: " + updated);
+            out.println("Resident updated successfully: " + updated);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void deleteResident() {
-        System.out.println("\n--- Delete Resident ---");
+        out.println("\n--- Delete Resident ---");
 
         try {
-            System.out.print("Enter resident ID to delete: ");
+            out.print("Enter resident ID to delete: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Are you sure? (yes/no): ");
+            out.print("Are you sure? (yes/no): ");
             String confirm = scanner.nextLine();
 
             if (confirm.equalsIgnoreCase("yes")) {
                 residentService.deleteResident(id);
-                System.out.println("Resident deleted successfully.");
+                out.println("Resident deleted successfully.");
             } else {
-                System.out.println("Deletion cancelled.");
+                out.println("Deletion cancelled.");
             }
         } catch (Exception e) {
             handleException(e);
@@ -236,20 +262,20 @@ public class ConsoleUI {
     }
 
     private void searchResident() {
-        System.out.println("\n--- Search Resident ---");
+        out.println("\n--- Search Resident ---");
 
         try {
-            System.out.print("Enter search term (name): ");
+            out.print("Enter search term (name): ");
             String searchTerm = scanner.nextLine();
 
             List<Resident> results = residentService.searchResidents(searchTerm);
 
             if (results.isEmpty()) {
-                System.out.println("No residents found matching: " + searchTerm);
+                out.println("No residents found matching: " + searchTerm);
             } else {
-                System.out.println("Search results:");
+                out.println("Search results:");
                 for (Resident resident : results) {
-                    System.out.println(resident);
+                    out.println(resident);
                 }
             }
         } catch (Exception e) {
@@ -260,15 +286,15 @@ public class ConsoleUI {
     private void showVehicleMenu() {
         boolean back = false;
         while (!back) {
-            System.out.println("\n=== VEHICLE MANAGEMENT ===");
-            System.out.println("1. Register Vehicle");
-            System.out.println("2. View All Vehicles");
-            System.out.println("3. Update Vehicle");
-            System.out.println("4. Delete Vehicle");
-            System.out.println("5. Search by Plate Number");
-            System.out.println("6. Toggle Vehicle Access");
-            System.out.println("0. Back to Main Menu");
-            System.out.print("Enter your choice: ");
+            out.println("\n=== VEHICLE MANAGEMENT ===");
+            out.println("1. Register Vehicle");
+            out.println("2. View All Vehicles");
+            out.println("3. Update Vehicle");
+            out.println("4. Delete Vehicle");
+            out.println("5. Search by Plate Number");
+            out.println("6. Toggle Vehicle Access");
+            out.println("0. Back to Main Menu");
+            out.print("Enter your choice: ");
 
             try {
                 int choice = scanner.nextInt();
@@ -282,10 +308,10 @@ public class ConsoleUI {
                     case 5 -> searchVehicleByPlate();
                     case 6 -> toggleVehicleAccess();
                     case 0 -> back = true;
-                    default -> System.out.println("Invalid choice.");
+                    default -> out.println("Invalid choice.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("Invalid input. Please enter a number.");
+                out.println("Invalid input. Please enter a number.");
                 scanner.nextLine();
             } catch (Exception e) {
                 handleException(e);
@@ -294,46 +320,46 @@ public class ConsoleUI {
     }
 
     private void registerVehicle() {
-        System.out.println("\n--- Register Vehicle ---");
+        out.println("\n--- Register Vehicle ---");
 
         try {
-            System.out.print("Enter vehicle ID: ");
+            out.print("Enter vehicle ID: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Enter plate number: ");
+            out.print("Enter plate number: ");
             String plate = scanner.nextLine();
 
-            System.out.print("Enter owner resident ID: ");
+            out.print("Enter owner resident ID: ");
             int ownerId = scanner.nextInt();
 
-            System.out.println("Available vehicle types:");
-            System.out.println("1. Car");
-            System.out.println("2. SUV");
-            System.out.println("3. Motorcycle");
-            System.out.print("Select vehicle type (1-3): ");
+            out.println("Available vehicle types:");
+            out.println("1. Car");
+            out.println("2. SUV");
+            out.println("3. Motorcycle");
+            out.print("Select vehicle type (1-3): ");
             int typeChoice = scanner.nextInt();
 
-            System.out.print("Is vehicle allowed? (true/false): ");
+            out.print("Is vehicle allowed? (true/false): ");
             boolean allowed = scanner.nextBoolean();
             scanner.nextLine();
 
             vehicleService.registerVehicle(id, plate, ownerId, typeChoice, allowed);
-            System.out.println("Vehicle registered successfully.");
+            out.println("Vehicle registered successfully.");
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewAllVehicles() {
-        System.out.println("\n--- All Vehicles ---");
+        out.println("\n--- All Vehicles ---");
         List<Vehicle> vehicles = vehicleService.getAllVehicles();
 
         if (vehicles.isEmpty()) {
-            System.out.println("No vehicles found.");
+            out.println("No vehicles found.");
         } else {
             for (Vehicle vehicle : vehicles) {
-                System.out.println(vehicle);
+                out.println(vehicle);
             }
         }
     }
@@ -341,15 +367,15 @@ public class ConsoleUI {
     private void showLaneMenu() {
         boolean back = false;
         while (!back) {
-            System.out.println("\n=== GATE LANE MANAGEMENT ===");
-            System.out.println("1. Add Lane");
-            System.out.println("2. View All Lanes");
-            System.out.println("3. Update Lane");
-            System.out.println("4. Open/Close Lane");
-            System.out.println("5. View Available Lanes");
-            System.out.println("6. View Lane Utilization");
-            System.out.println("0. Back to Main Menu");
-            System.out.print("Enter your choice: ");
+            out.println("\n=== GATE LANE MANAGEMENT ===");
+            out.println("1. Add Lane");
+            out.println("2. View All Lanes");
+            out.println("3. Update Lane");
+            out.println("4. Open/Close Lane");
+            out.println("5. View Available Lanes");
+            out.println("6. View Lane Utilization");
+            out.println("0. Back to Main Menu");
+            out.print("Enter your choice: ");
 
             try {
                 int choice = scanner.nextInt();
@@ -363,10 +389,10 @@ public class ConsoleUI {
                     case 5 -> viewAvailableLanes();
                     case 6 -> viewLaneUtilization();
                     case 0 -> back = true;
-                    default -> System.out.println("Invalid choice.");
+                    default -> out.println("Invalid choice.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("Invalid input. Please enter a number.");
+                out.println("Invalid input. Please enter a number.");
                 scanner.nextLine();
             } catch (Exception e) {
                 handleException(e);
@@ -375,35 +401,35 @@ public class ConsoleUI {
     }
 
     private void addLane() {
-        System.out.println("\n--- Add Gate Lane ---");
+        out.println("\n--- Add Gate Lane ---");
 
         try {
-            System.out.print("Enter lane ID: ");
+            out.print("Enter lane ID: ");
             int id = scanner.nextInt();
 
-            System.out.print("Enter lane number: ");
+            out.print("Enter lane number: ");
             int laneNumber = scanner.nextInt();
 
-            System.out.print("Enter capacity per minute: ");
+            out.print("Enter capacity per minute: ");
             int capacity = scanner.nextInt();
             scanner.nextLine();
 
             laneService.addLane(id, laneNumber, capacity);
-            System.out.println("Lane added successfully.");
+            out.println("Lane added successfully.");
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewAllLanes() {
-        System.out.println("\n--- All Gate Lanes ---");
+        out.println("\n--- All Gate Lanes ---");
         List<GateLane> lanes = laneService.getAllLanes();
 
         if (lanes.isEmpty()) {
-            System.out.println("No lanes found.");
+            out.println("No lanes found.");
         } else {
             for (GateLane lane : lanes) {
-                System.out.printf("Lane %d: Status=%s, Capacity=%d, Current Load=%d, Utilization=%.1f%%\n",
+                out.printf("Lane %d: Status=%s, Capacity=%d, Current Load=%d, Utilization=%.1f%%\n",
                         lane.getLaneNumber(), lane.getStatus(),
                         lane.getCapacityPerMinute(), lane.getCurrentLoad(),
                         laneService.getLaneUtilization(lane.getId()));
@@ -414,17 +440,19 @@ public class ConsoleUI {
     private void showTrafficMenu() {
         boolean back = false;
         while (!back) {
-            System.out.println("\n=== TRAFFIC MANAGEMENT ===");
-            System.out.println("1. Request Entry (Resident)");
-            System.out.println("2. Request Exit (Resident)");
-            System.out.println("3. Request Visitor Entry");
-            System.out.println("4. View Pending Passes");
-            System.out.println("5. Approve/Deny Pass");
-            System.out.println("6. Complete Pass");
-            System.out.println("7. View Traffic Logs");
-            System.out.println("8. View Lane Traffic");
-            System.out.println("0. Back to Main Menu");
-            System.out.print("Enter your choice: ");
+            out.println("\n=== TRAFFIC MANAGEMENT ===");
+            out.println("1. Request Entry (Resident)");
+            out.println("2. Request Exit (Resident)");
+            out.println("3. Request Visitor Entry");
+            out.println("4. View Pending Passes");
+            out.println("5. Approve/Deny Pass");
+            out.println("6. Complete Pass");
+            out.println("7. View Traffic Logs");
+            out.println("8. View Lane Traffic");
+            out.println("9. Hourly Lane Traffic Report");
+            out.println("10. Gate Metrics");
+            out.println("0. Back to Main Menu");
+            out.print("Enter your choice: ");
 
             try {
                 int choice = scanner.nextInt();
@@ -439,11 +467,13 @@ public class ConsoleUI {
                     case 6 -> completePass();
                     case 7 -> viewTrafficLogs();
                     case 8 -> viewLaneTraffic();
+                    case 9 -> viewHourlyLaneTraffic();
+                    case 10 -> viewGateMetrics();
                     case 0 -> back = true;
-                    default -> System.out.println("Invalid choice.");
+                    default -> out.println("Invalid choice.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("Invalid input. Please enter a number.");
+                out.println("Invalid input. Please enter a number.");
                 scanner.nextLine();
             } catch (Exception e) {
                 handleException(e);
@@ -452,57 +482,57 @@ public class ConsoleUI {
     }
 
     private void requestEntry() {
-        System.out.println("\n--- Request Entry ---");
+        out.println("\n--- Request Entry ---");
 
         try {
-            System.out.print("Enter vehicle ID: ");
+            out.print("Enter vehicle ID: ");
             int vehicleId = scanner.nextInt();
             scanner.nextLine();
 
             GatePass pass = trafficService.requestEntry(vehicleId);
-            System.out.println("Entry request created: " + pass);
+            out.println("Entry request created: " + pass);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewPendingPasses() {
-        System.out.println("\n--- Pending Gate Passes ---");
+        out.println("\n--- Pending Gate Passes ---");
         List<GatePass> pending = trafficService.getPendingPasses();
 
         if (pending.isEmpty()) {
-            System.out.println("No pending passes.");
+            out.println("No pending passes.");
         } else {
             for (GatePass pass : pending) {
-                System.out.println(pass);
+                out.println(pass);
             }
         }
     }
 
     private void processPass() {
-        System.out.println("\n--- Process Gate Pass ---");
+        out.println("\n--- Process Gate Pass ---");
 
         try {
-            System.out.print("Enter pass ID: ");
+            out.print("Enter pass ID: ");
             int passId = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.println("1. Approve");
-            System.out.println("2. Deny");
-            System.out.print("Select action: ");
+            out.println("1. Approve");
+            out.println("2. Deny");
+            out.print("Select action: ");
             int action = scanner.nextInt();
             scanner.nextLine();
 
             switch (action) {
                 case 1 -> {
                     GatePass approved = trafficService.approvePass(passId);
-                    System.out.println("Pass approved: " + approved);
+                    out.println("Pass approved: " + approved);
                 }
                 case 2 -> {
                     GatePass denied = trafficService.denyPass(passId);
-                    System.out.println("Pass denied: " + denied);
+                    out.println("Pass denied: " + denied);
                 }
-                default -> System.out.println("Invalid action.");
+                default -> out.println("Invalid action.");
             }
         } catch (Exception e) {
             handleException(e);
@@ -512,14 +542,14 @@ public class ConsoleUI {
     private void showVisitorMenu() {
         boolean back = false;
         while (!back) {
-            System.out.println("\n=== VISITOR MANAGEMENT ===");
-            System.out.println("1. Create Visit Reservation");
-            System.out.println("2. View All Reservations");
-            System.out.println("3. Cancel Reservation");
-            System.out.println("4. Validate Visitor Access");
-            System.out.println("5. View Active Reservations");
-            System.out.println("0. Back to Main Menu");
-            System.out.print("Enter your choice: ");
+            out.println("\n=== VISITOR MANAGEMENT ===");
+            out.println("1. Create Visit Reservation");
+            out.println("2. View All Reservations");
+            out.println("3. Cancel Reservation");
+            out.println("4. Validate Visitor Access");
+            out.println("5. View Active Reservations");
+            out.println("0. Back to Main Menu");
+            out.print("Enter your choice: ");
 
             try {
                 int choice = scanner.nextInt();
@@ -532,10 +562,10 @@ public class ConsoleUI {
                     case 4 -> validateVisitorAccess();
                     case 5 -> viewActiveReservations();
                     case 0 -> back = true;
-                    default -> System.out.println("Invalid choice.");
+                    default -> out.println("Invalid choice.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("Invalid input. Please enter a number.");
+                out.println("Invalid input. Please enter a number.");
                 scanner.nextLine();
             } catch (Exception e) {
                 handleException(e);
@@ -545,53 +575,53 @@ public class ConsoleUI {
 // Add these methods to your ConsoleUI class
 
     private void updateVehicle() {
-        System.out.println("\n--- Update Vehicle ---");
+        out.println("\n--- Update Vehicle ---");
 
         try {
-            System.out.print("Enter vehicle ID to update: ");
+            out.print("Enter vehicle ID to update: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Enter new plate number: ");
+            out.print("Enter new plate number: ");
             String plate = scanner.nextLine();
 
-            System.out.print("Enter new owner resident ID: ");
+            out.print("Enter new owner resident ID: ");
             int ownerId = scanner.nextInt();
 
-            System.out.println("Available vehicle types:");
-            System.out.println("1. Car");
-            System.out.println("2. SUV");
-            System.out.println("3. Motorcycle");
-            System.out.print("Select vehicle type (1-3): ");
+            out.println("Available vehicle types:");
+            out.println("1. Car");
+            out.println("2. SUV");
+            out.println("3. Motorcycle");
+            out.print("Select vehicle type (1-3): ");
             int typeChoice = scanner.nextInt();
 
-            System.out.print("Is vehicle allowed? (true/false): ");
+            out.print("Is vehicle allowed? (true/false): ");
             boolean allowed = scanner.nextBoolean();
             scanner.nextLine();
 
             Vehicle updated = vehicleService.updateVehicle(id, plate, ownerId, typeChoice, allowed);
-            System.out.println("Vehicle updated successfully: " + updated);
+            out.println("Vehicle updated successfully: " + updated);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void deleteVehicle() {
-        System.out.println("\n--- Delete Vehicle ---");
+        out.println("\n--- Delete Vehicle ---");
 
         try {
-            System.out.print("Enter vehicle ID to delete: ");
+            out.print("Enter vehicle ID to delete: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Are you sure? (yes/no): ");
+            out.print("Are you sure? (yes/no): ");
             String confirm = scanner.nextLine();
 
             if (confirm.equalsIgnoreCase("yes")) {
                 vehicleService.deleteVehicle(id);
-                System.out.println("Vehicle deleted successfully.");
+                out.println("Vehicle deleted successfully.");
             } else {
-                System.out.println("Deletion cancelled.");
+                out.println("Deletion cancelled.");
             }
         } catch (Exception e) {
             handleException(e);
@@ -599,18 +629,18 @@ public class ConsoleUI {
     }
 
     private void searchVehicleByPlate() {
-        System.out.println("\n--- Search Vehicle by Plate ---");
+        out.println("\n--- Search Vehicle by Plate ---");
 
         try {
-            System.out.print("Enter plate number: ");
+            out.print("Enter plate number: ");
             String plate = scanner.nextLine();
 
             java.util.Optional<Vehicle> vehicle = vehicleService.findVehicleByPlate(plate);
 
             if (vehicle.isPresent()) {
-                System.out.println("Vehicle found: " + vehicle.get());
+                out.println("Vehicle found: " + vehicle.get());
             } else {
-                System.out.println("No vehicle found with plate: " + plate);
+                out.println("No vehicle found with plate: " + plate);
             }
         } catch (Exception e) {
             handleException(e);
@@ -618,58 +648,57 @@ public class ConsoleUI {
     }
 
     private void toggleVehicleAccess() {
-        System.out.println("\n--- Toggle Vehicle Access ---");
+        out.println("\n--- Toggle Vehicle Access ---");
 
         try {
-            System.out.print("Enter vehicle ID: ");
+            out.print("Enter vehicle ID: ");
             int vehicleId = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Allow access? (true/false): ");
+            out.print("Allow access? (true/false): ");
             boolean allowed = scanner.nextBoolean();
             scanner.nextLine();
 
             vehicleService.toggleVehicleAccess(vehicleId, allowed);
-            System.out.println("Vehicle access updated successfully.");
+            out.println("Vehicle access updated successfully.");
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void updateLane() {
-        System.out.println("\n--- Update Gate Lane ---");
+        out.println("\n--- Update Gate Lane ---");
 
         try {
-            System.out.print("Enter lane ID to update: ");
+            out.print("Enter lane ID to update: ");
             int id = scanner.nextInt();
 
-            System.out.print("Enter new lane number: ");
+            out.print("Enter new lane number: ");
             int laneNumber = scanner.nextInt();
 
-            System.out.print("Enter new capacity per minute: ");
+            out.print("Enter new capacity per minute: ");
             int capacity = scanner.nextInt();
             scanner.nextLine();
 
             GateLane updated = laneService.updateLane(id, laneNumber, capacity);
-            System.out.println("Lane updated successfully: " + updated);
+            out.println("Lane updated successfully: " + updated);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void toggleLaneStatus() {
-        System.out.println("\n--- Open/Close Lane ---");
+        out.println("\n--- Open/Close Lane ---");
 
         try {
-            System.out.print("Enter lane ID: ");
+            out.print("Enter lane ID: ");
             int laneId = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.println("Select new status:");
-            System.out.println("1. OPEN");
-            System.out.println("2. CLOSED");
-            System.out.println("3. BUSY");
-            System.out.print("Enter choice (1-3): ");
+            out.println("Select new status:");
+            out.println("1. OPEN");
+            out.println("2. CLOSED");
+            out.print("Enter choice (1-2): ");
             int statusChoice = scanner.nextInt();
             scanner.nextLine();
 
@@ -677,49 +706,48 @@ public class ConsoleUI {
             switch (statusChoice) {
                 case 1 -> status = LaneStatus.OPEN;
                 case 2 -> status = LaneStatus.CLOSED;
-                case 3 -> status = LaneStatus.BUSY;
                 default -> {
-                    System.out.println("Invalid choice. Using OPEN as default.");
+                    out.println("Invalid choice. Using OPEN as default.");
                     status = LaneStatus.OPEN;
                 }
             }
 
             GateLane updated = laneService.updateLaneStatus(laneId, status);
-            System.out.println("Lane status updated: " + updated);
+            out.println("Lane status updated: " + updated);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewAvailableLanes() {
-        System.out.println("\n--- Available Lanes ---");
+        out.println("\n--- Available Lanes ---");
         List<GateLane> availableLanes = laneService.getAvailableLanes();
 
         if (availableLanes.isEmpty()) {
-            System.out.println("No lanes currently available.");
+            out.println("No lanes currently available.");
         } else {
-            System.out.println("Available lanes:");
+            out.println("Available lanes:");
             for (GateLane lane : availableLanes) {
-                System.out.printf("Lane %d: Capacity %d/%d (%.1f%% utilized)\n",
+                out.printf("Lane %d: Capacity %d/%d (%.1f%% utilized)\n",
                         lane.getLaneNumber(), lane.getCurrentLoad(),
                         lane.getCapacityPerMinute(),
                         laneService.getLaneUtilization(lane.getId()));
             }
-            System.out.println("Total available: " + availableLanes.size() + " lanes");
+            out.println("Total available: " + availableLanes.size() + " lanes");
         }
     }
 
     private void viewLaneUtilization() {
-        System.out.println("\n--- Lane Utilization ---");
+        out.println("\n--- Lane Utilization ---");
         List<GateLane> lanes = laneService.getAllLanes();
 
         if (lanes.isEmpty()) {
-            System.out.println("No lanes found.");
+            out.println("No lanes found.");
         } else {
-            System.out.println("Lane Utilization Report:");
-            System.out.println("+-------+------------+-----------------+--------------+");
-            System.out.println("| Lane  | Status     | Current/Capacity| Utilization  |");
-            System.out.println("+-------+------------+-----------------+--------------+");
+            out.println("Lane Utilization Report:");
+            out.println("+-------+------------+-----------------+--------------+");
+            out.println("| Lane  | Status     | Current/Capacity| Utilization  |");
+            out.println("+-------+------------+-----------------+--------------+");
 
             for (GateLane lane : lanes) {
                 double utilization = laneService.getLaneUtilization(lane.getId());
@@ -731,118 +759,171 @@ public class ConsoleUI {
                 else if (utilization > 70) statusColor = "\u001B[33m"; // Yellow
                 else statusColor = "\u001B[32m"; // Green
 
-                System.out.printf("| %-5d | %-10s | %-15s | %s%-10.1f%%%s |\n",
+                out.printf("| %-5d | %-10s | %-15s | %s%-10.1f%%%s |\n",
                         lane.getLaneNumber(),
                         lane.getStatus(),
                         lane.getCurrentLoad() + "/" + lane.getCapacityPerMinute(),
                         statusColor, utilization, resetColor);
             }
-            System.out.println("+-------+------------+-----------------+--------------+");
+            out.println("+-------+------------+-----------------+--------------+");
         }
     }
 
     private void requestExit() {
-        System.out.println("\n--- Request Exit ---");
+        out.println("\n--- Request Exit ---");
 
         try {
-            System.out.print("Enter vehicle ID: ");
+            out.print("Enter vehicle ID: ");
             int vehicleId = scanner.nextInt();
             scanner.nextLine();
 
             GatePass pass = trafficService.requestExit(vehicleId);
-            System.out.println("Exit request created: " + pass);
+            out.println("Exit request created: " + pass);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void requestVisitorEntry() {
-        System.out.println("\n--- Request Visitor Entry ---");
+        out.println("\n--- Request Visitor Entry ---");
 
         try {
-            System.out.print("Enter visitor vehicle plate number: ");
+            out.print("Enter visitor vehicle plate number: ");
             String plate = scanner.nextLine();
 
             GatePass pass = trafficService.requestVisitorEntry(plate);
-            System.out.println("Visitor entry request created: " + pass);
+            out.println("Visitor entry request created: " + pass);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void completePass() {
-        System.out.println("\n--- Complete Gate Pass ---");
+        out.println("\n--- Complete Gate Pass ---");
 
         try {
-            System.out.print("Enter pass ID to complete: ");
+            out.print("Enter pass ID to complete: ");
             int passId = scanner.nextInt();
             scanner.nextLine();
 
             GatePass completed = trafficService.completePass(passId);
-            System.out.println("Pass completed: " + completed);
+            out.println("Pass completed: " + completed);
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewTrafficLogs() {
-        System.out.println("\n--- Traffic Logs ---");
+        out.println("\n--- Traffic Logs ---");
         List<GatePass> allPasses = trafficService.getAllPasses();
 
         if (allPasses.isEmpty()) {
-            System.out.println("No traffic logs found.");
+            out.println("No traffic logs found.");
         } else {
-            System.out.println("Traffic Logs (Most recent first):");
+            out.println("Traffic Logs (Most recent first):");
             // Sort by pass time descending
-            allPasses.sort((p1, p2) -> p2.getPassTime().compareTo(p1.getPassTime()));
+            allPasses.sort((p1, p2) -> Long.compare(p2.getPassTimeMillis(), p1.getPassTimeMillis()));
 
             for (GatePass pass : allPasses) {
-                System.out.println(pass);
+                out.println(pass);
             }
-            System.out.println("Total passes: " + allPasses.size());
+            out.println("Total passes: " + allPasses.size());
         }
     }
 
     private void viewLaneTraffic() {
-        System.out.println("\n--- Lane Traffic ---");
+        out.println("\n--- Lane Traffic ---");
 
         try {
-            System.out.print("Enter lane ID to view traffic: ");
+            out.print("Enter lane ID to view traffic: ");
             int laneId = scanner.nextInt();
             scanner.nextLine();
+            out.print("Enter date (yyyy-mm-dd) or leave empty for all days: ");
+            String dateStr = scanner.nextLine().trim();
 
-            List<GatePass> lanePasses = trafficService.getPassesByLane(laneId);
+            List<GatePass> lanePasses;
+            if (dateStr.isEmpty()) {
+                lanePasses = trafficService.getPassesByLane(laneId);
+            } else {
+                LocalDate day = LocalDate.parse(dateStr, dateFormatter);
+                lanePasses = trafficService.getPassesByLaneBetween(laneId, day.atStartOfDay(), day.atTime(LocalTime.MAX));
+            }
 
             if (lanePasses.isEmpty()) {
-                System.out.println("No traffic recorded for this lane.");
+                out.println("No traffic recorded for this lane.");
             } else {
-                System.out.println("Traffic for Lane " + laneId + ":");
+                out.println("Traffic for Lane " + laneId + ":");
                 for (GatePass pass : lanePasses) {
-                    System.out.println(pass);
+                    out.println(pass);
                 }
-                System.out.println("Total passes: " + lanePasses.size());
+                out.println("Total passes: " + lanePasses.size());
             }
         } catch (Exception e) {
             handleException(e);
         }
     }
 
+    private void viewHourlyLaneTraffic() {
+        out.println("\n--- Hourly Lane Traffic ---");
+
+        try {
+            out.print("Enter date (yyyy-mm-dd): ");
+            LocalDate day = LocalDate.parse(scanner.nextLine(), dateFormatter);
+
+            Map<Integer, int[]> counts = trafficService.getHourlyLaneTraffic(day);
+            counts.forEach((laneId, hours) -> {
+                for (int hour = 0; hour < hours.length; hour++) {
+                    if (hours[hour] > 0) {
+                        out.printf("Lane %d  %02d:00-%02d:59  %d passes%n", laneId, hour, hour, hours[hour]);
+                    }
+                }
+            });
+            if (counts.isEmpty()) {
+                out.println("No traffic recorded on " + day + ".");
+            }
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    private void viewGateMetrics() {
+        out.println("\n--- Gate Metrics ---");
+        TrafficMetrics.Snapshot metrics = trafficService.getMetrics();
+
+        out.printf("%-22s", "Operation");
+        for (TrafficMetrics.Outcome outcome : TrafficMetrics.Outcome.values()) {
+            out.printf(" %9s", outcome);
+        }
+        out.printf(" %10s %10s %10s%n", "p50 ms", "p99 ms", "max ms");
+        for (TrafficMetrics.Operation operation : TrafficMetrics.Operation.values()) {
+            LatencyHistogram.Snapshot latency = metrics.latencies().get(operation);
+            out.printf("%-22s", operation);
+            for (TrafficMetrics.Outcome outcome : TrafficMetrics.Outcome.values()) {
+                out.printf(" %9d", metrics.count(operation, outcome));
+            }
+            out.printf(" %10.3f %10.3f %10.3f%n",
+                    latency.percentile(50) / 1e6, latency.percentile(99) / 1e6, latency.getMax() / 1e6);
+        }
+        metrics.completedPassesByLane().forEach((lane, passes) ->
+                out.printf("Lane %d: %d passes (%.1f/min)%n", lane, passes, metrics.lanePassesPerMinute(lane)));
+    }
+
     private void cancelReservation() {
-        System.out.println("\n--- Cancel Visit Reservation ---");
+        out.println("\n--- Cancel Visit Reservation ---");
 
         try {
-            System.out.print("Enter reservation ID to cancel: ");
+            out.print("Enter reservation ID to cancel: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Are you sure? (yes/no): ");
+            out.print("Are you sure? (yes/no): ");
             String confirm = scanner.nextLine();
 
             if (confirm.equalsIgnoreCase("yes")) {
                 visitorService.cancelReservation(id);
-                System.out.println("Reservation cancelled successfully.");
+                out.println("Reservation cancelled successfully.");
             } else {
-                System.out.println("Cancellation cancelled.");
+                out.println("Cancellation cancelled.");
             }
         } catch (Exception e) {
             handleException(e);
@@ -850,18 +931,18 @@ public class ConsoleUI {
     }
 
     private void validateVisitorAccess() {
-        System.out.println("\n--- Validate Visitor Access ---");
+        out.println("\n--- Validate Visitor Access ---");
 
         try {
-            System.out.print("Enter visitor vehicle plate number: ");
+            out.print("Enter visitor vehicle plate number: ");
             String plate = scanner.nextLine();
 
             boolean isValid = visitorService.validateVisitorAccess(plate);
 
             if (isValid) {
-                System.out.println("✓ Access GRANTED: Visitor has valid reservation.");
+                out.println("✓ Access GRANTED: Visitor has valid reservation.");
             } else {
-                System.out.println("✗ Access DENIED: No valid reservation found or reservation expired.");
+                out.println("✗ Access DENIED: No valid reservation found or reservation expired.");
             }
         } catch (Exception e) {
             handleException(e);
@@ -869,64 +950,64 @@ public class ConsoleUI {
     }
 
     private void viewActiveReservations() {
-        System.out.println("\n--- Active Visit Reservations ---");
+        out.println("\n--- Active Visit Reservations ---");
         List<VisitReservation> activeReservations = visitorService.getActiveReservations();
 
         if (activeReservations.isEmpty()) {
-            System.out.println("No active reservations found.");
+            out.println("No active reservations found.");
         } else {
-            System.out.println("Active Reservations:");
+            out.println("Active Reservations:");
             for (VisitReservation reservation : activeReservations) {
-                System.out.println(reservation);
+                out.println(reservation);
             }
-            System.out.println("Total active: " + activeReservations.size() + " reservations");
+            out.println("Total active: " + activeReservations.size() + " reservations");
         }
     }
     private void createReservation() {
-        System.out.println("\n--- Create Visit Reservation ---");
+        out.println("\n--- Create Visit Reservation ---");
 
         try {
-            System.out.print("Enter reservation ID: ");
+            out.print("Enter reservation ID: ");
             int id = scanner.nextInt();
             scanner.nextLine();
 
-            System.out.print("Enter visitor name: ");
+            out.print("Enter visitor name: ");
             String name = scanner.nextLine();
 
-            System.out.print("Enter vehicle plate: ");
+            out.print("Enter vehicle plate: ");
             String plate = scanner.nextLine();
 
-            System.out.print("Enter visit date (yyyy-mm-dd): ");
+            out.print("Enter visit date (yyyy-mm-dd): ");
             String dateStr = scanner.nextLine();
             LocalDate date = LocalDate.parse(dateStr, dateFormatter);
 
-            System.out.print("Enter visit time (HH:mm): ");
+            out.print("Enter visit time (HH:mm): ");
             String timeStr = scanner.nextLine();
             LocalTime time = LocalTime.parse(timeStr, timeFormatter);
 
-            System.out.print("Enter number of passengers: ");
+            out.print("Enter number of passengers: ");
             int passengers = scanner.nextInt();
             scanner.nextLine();
 
             VisitReservation reservation = visitorService.createReservation(
                     id, name, plate, date, time, passengers);
-            System.out.println("Reservation created: " + reservation);
+            out.println("Reservation created: " + reservation);
         } catch (DateTimeParseException e) {
-            System.out.println("Invalid date/time format. Please use yyyy-mm-dd and HH:mm.");
+            out.println("Invalid date/time format. Please use yyyy-mm-dd and HH:mm.");
         } catch (Exception e) {
             handleException(e);
         }
     }
 
     private void viewAllReservations() {
-        System.out.println("\n--- All Visit Reservations ---");
+        out.println("\n--- All Visit Reservations ---");
         List<VisitReservation> reservations = visitorService.getAllReservations();
 
         if (reservations.isEmpty()) {
-            System.out.println("No reservations found.");
+            out.println("No reservations found.");
         } else {
             for (VisitReservation reservation : reservations) {
-                System.out.println(reservation);
+                out.println(reservation);
             }
         }
     }
@@ -934,13 +1015,13 @@ public class ConsoleUI {
     private void showDriverMenu() {
         boolean back = false;
         while (!back) {
-            System.out.println("\n=== DRIVER OPERATIONS ===");
-            System.out.println("1. Request Entry (Resident)");
-            System.out.println("2. Request Exit (Resident)");
-            System.out.println("3. Request Visitor Entry");
-            System.out.println("4. Check Lane Availability");
-            System.out.println("0. Back to Main Menu");
-            System.out.print("Enter your choice: ");
+            out.println("\n=== DRIVER OPERATIONS ===");
+            out.println("1. Request Entry (Resident)");
+            out.println("2. Request Exit (Resident)");
+            out.println("3. Request Visitor Entry");
+            out.println("4. Check Lane Availability");
+            out.println("0. Back to Main Menu");
+            out.print("Enter your choice: ");
 
             try {
                 int choice = scanner.nextInt();
@@ -952,10 +1033,10 @@ public class ConsoleUI {
                     case 3 -> requestVisitorEntry();
                     case 4 -> checkLaneAvailability();
                     case 0 -> back = true;
-                    default -> System.out.println("Invalid choice.");
+                    default -> out.println("Invalid choice.");
                 }
             } catch (InputMismatchException e) {
-                System.out.println("Invalid input. Please enter a number.");
+                out.println("Invalid input. Please enter a number.");
                 scanner.nextLine();
             } catch (Exception e) {
                 handleException(e);
@@ -964,15 +1045,15 @@ public class ConsoleUI {
     }
 
     private void checkLaneAvailability() {
-        System.out.println("\n--- Lane Availability ---");
+        out.println("\n--- Lane Availability ---");
         List<GateLane> available = laneService.getAvailableLanes();
 
         if (available.isEmpty()) {
-            System.out.println("No lanes currently available.");
+            out.println("No lanes currently available.");
         } else {
-            System.out.println("Available lanes:");
+            out.println("Available lanes:");
             for (GateLane lane : available) {
-                System.out.printf("Lane %d: Capacity %d/%d (%.1f%% utilized)\n",
+                out.printf("Lane %d: Capacity %d/%d (%.1f%% utilized)\n",
                         lane.getLaneNumber(), lane.getCurrentLoad(),
                         lane.getCapacityPerMinute(),
                         laneService.getLaneUtilization(lane.getId()));
@@ -981,13 +1062,17 @@ public class ConsoleUI {
     }
 
     private void handleException(Exception e) {
+        if (e instanceof NoSuchElementException && !(e instanceof InputMismatchException)) {
+            // Input is exhausted; let start() end the session instead of looping on the menu
+            throw (NoSuchElementException) e;
+        }
         if (e instanceof CompoundGateException) {
-            System.out.println("Error: " + e.getMessage());
+            out.println("Error: " + e.getMessage());
         } else if (e instanceof InputMismatchException) {
-            System.out.println("Invalid input format. Please try again.");
+            out.println("Invalid input format. Please try again.");
             scanner.nextLine(); // Clear invalid input
         } else {
-            System.out.println("Unexpected error: " + e.getMessage());
+            out.println("Unexpected error: " + e.getMessage());
             e.printStackTrace(); // For debugging in development
         }
     }
@@ -0,0 +1,80 @@
+package com.research.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+/**
+ * Serves many gate terminals from one JVM. Every accepted connection gets its own
+ * blocking {@link ConsoleUI} session over the socket, all sharing the same services.
+ * On Java 21+ each session runs on a virtual thread, so hundreds of idle terminals cost
+ * no platform threads; on older runtimes it falls back to a cached thread pool.
+ */
+public class TerminalServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final BiFunction<InputStream, PrintStream, ConsoleUI> sessionFactory;
+    private final boolean virtualThreads;
+
+    public TerminalServer(int port, BiFunction<InputStream, PrintStream, ConsoleUI> sessionFactory) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.sessionFactory = sessionFactory;
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        this.virtualThreads = virtual != null;
+        this.sessions = virtual != null ? virtual : Executors.newCachedThreadPool();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Accepts terminals until the server is closed.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> runSession(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Failed to accept terminal connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void runSession(Socket socket) {
+        try (socket) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            sessionFactory.apply(socket.getInputStream(), out).start();
+        } catch (IOException e) {
+            System.err.println("Terminal session ended with error: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    // Looked up reflectively so the Java 17 build uses virtual threads when run on Java 21+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.research.util;
+
+import java.time.Duration;
+
+/**
+ * Coarse clock whose time is refreshed by a background daemon thread, so reading it is
+ * a single volatile load. Times lag the system clock by at most the refresh interval.
+ */
+public class CachedEpochClock implements EpochClock, AutoCloseable {
+    private final Thread ticker;
+    private volatile long millis = System.currentTimeMillis();
+
+    public CachedEpochClock(Duration resolution) {
+        long sleepMillis = Math.max(1, resolution.toMillis());
+        ticker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                millis = System.currentTimeMillis();
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "cached-epoch-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public void close() {
+        ticker.interrupt();
+    }
+}
@@ -0,0 +1,45 @@
+package com.research.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Source of wall-clock time in epoch milliseconds for entity timestamps.
+ * The process-wide clock defaults to the system clock; it can be replaced by a
+ * {@link CachedEpochClock} to avoid a clock read per event, or by a
+ * {@link FixedEpochClock} to make time deterministic in tests.
+ */
+@FunctionalInterface
+public interface EpochClock {
+    EpochClock SYSTEM = System::currentTimeMillis;
+
+    long millis();
+
+    static EpochClock current() {
+        return Holder.clock;
+    }
+
+    static void setCurrent(EpochClock clock) {
+        Holder.clock = clock;
+    }
+
+    static long now() {
+        return Holder.clock.millis();
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    final class Holder {
+        private static volatile EpochClock clock = SYSTEM;
+
+        private Holder() {
+        }
+    }
+}
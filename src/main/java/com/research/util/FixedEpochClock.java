@@ -0,0 +1,28 @@
+package com.research.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when told to, for tests.
+ */
+public class FixedEpochClock implements EpochClock {
+    private final AtomicLong millis;
+
+    public FixedEpochClock(long millis) {
+        this.millis = new AtomicLong(millis);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    public void set(long millis) {
+        this.millis.set(millis);
+    }
+
+    public void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+}
@@ -0,0 +1,135 @@
+package com.research.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histogram in the HdrHistogram layout: values below 128 ns have a bucket each,
+ * above that every power of two is split into 64 sub-buckets, so any recorded value is
+ * reported within 1/64 (about 1.6%) of its true value up to an hour.
+ * <p>
+ * Recording is one atomic increment into a stripe chosen by the recording thread, so
+ * terminals on different threads never contend on a counter. Stripes are allocated on
+ * first use. Snapshots sum the stripes without stopping recorders; a snapshot taken
+ * mid-burst may miss the records still in flight.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final long MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+    // Per stripe: one slot per bucket, then the running total for the mean
+    private static final int TOTAL_SLOT = BUCKETS;
+    private static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) * 2);
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        AtomicLongArray stripe = stripe();
+        stripe.getAndIncrement(indexOf(value));
+        stripe.getAndAdd(TOTAL_SLOT, value);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+            total += stripe.get(TOTAL_SLOT);
+        }
+        return new Snapshot(counts, total);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().getId();
+        int s = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(s);
+        if (stripe == null) {
+            stripes.compareAndSet(s, null, new AtomicLongArray(BUCKETS + 1));
+            stripe = stripes.get(s);
+        }
+        return stripe;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    // Largest value that lands in the bucket, as HdrHistogram reports percentiles
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Point-in-time copy of the counts; values are in nanoseconds.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+
+        private Snapshot(long[] counts, long total) {
+            this.counts = counts;
+            this.total = total;
+            long sum = 0;
+            for (long bucket : counts) {
+                sum += bucket;
+            }
+            this.count = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValueIn(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Value at the given percentile (0-100).
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueIn(i);
+                }
+            }
+            return getMax();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.research.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free limiter admitting at most {@code permits} events in any sliding window.
+ * Implemented as a token bucket in its GCRA form: a single "theoretical arrival time"
+ * advanced by one emission interval per admission, so state is one CAS-updated long
+ * and capacity comes back on its own as time passes.
+ */
+public class ThroughputLimiter {
+    private final long windowNanos;
+    private volatile long intervalNanos;
+    // Never-used limiters start far in the past; nanoTime origins can be negative
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE / 2);
+
+    public ThroughputLimiter(int permits, long window, TimeUnit unit) {
+        this.windowNanos = unit.toNanos(window);
+        setPermits(permits);
+    }
+
+    public static ThroughputLimiter perMinute(int permits) {
+        return new ThroughputLimiter(permits, 1, TimeUnit.MINUTES);
+    }
+
+    public void setPermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.intervalNanos = windowNanos / permits;
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        long interval = intervalNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + interval;
+            if (next - nowNanos > windowNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean hasRoom(long nowNanos) {
+        return nextAvailableNanos() <= nowNanos;
+    }
+
+    /**
+     * Earliest time at which {@link #tryAcquire} can succeed.
+     */
+    public long nextAvailableNanos() {
+        return theoreticalArrival.get() + intervalNanos - windowNanos;
+    }
+
+    /**
+     * Instant up to which admissions so far are spaced at the permitted rate.
+     * How far it lies beyond now, relative to the window, is the window's fill ratio.
+     */
+    public long theoreticalArrivalNanos() {
+        return theoreticalArrival.get();
+    }
+
+    /**
+     * Admissions still counted against the current window.
+     */
+    public int permitsInUse(long nowNanos) {
+        long interval = intervalNanos;
+        long backlog = theoreticalArrival.get() - nowNanos;
+        return backlog <= 0 ? 0 : (int) ((backlog + interval - 1) / interval);
+    }
+}
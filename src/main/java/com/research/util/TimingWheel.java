@@ -0,0 +1,232 @@
+package com.research.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel: four wheels of 64 slots, each slot of a wheel spanning a
+ * whole turn of the wheel below it. Scheduling and cancelling are O(1); a task waits in
+ * the coarsest wheel that can hold its deadline and cascades down as time approaches it,
+ * so advancing costs O(1) per tick plus one move per task and level.
+ * <p>
+ * The wheel has no thread of its own: whoever calls {@link #advanceTo} runs the tasks
+ * that fell due, in deadline order, after the wheel's lock is released. Tasks run at the
+ * first tick boundary at or after their deadline. Deadlines beyond the wheel's span
+ * (2^24 ticks) wait in the top wheel and are re-placed on each cascade.
+ */
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Timeout[][] heads = new Timeout[LEVELS][SLOTS];
+    private final List<Timeout> due = new ArrayList<>();
+    // Written under the lock, read without it to skip advances that have nothing to do
+    private volatile long currentTick;
+    private volatile boolean hasDue;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(this, -Math.floorDiv(-deadlineMillis, tickMillis), deadlineMillis, task);
+        lock.lock();
+        try {
+            place(timeout);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel to the given time and runs every task due by then.
+     * Returns the number of tasks run.
+     */
+    public int advanceTo(long nowMillis) {
+        if (isCurrent(nowMillis)) {
+            return 0;
+        }
+        lock.lock();
+        return advanceLocked(nowMillis);
+    }
+
+    /**
+     * Like {@link #advanceTo} but never waits: returns at once if another thread is
+     * advancing the wheel, which will run the due tasks instead. Reads no shared state
+     * under a lock when there is nothing to do.
+     */
+    public int tryAdvanceTo(long nowMillis) {
+        if (isCurrent(nowMillis) || !lock.tryLock()) {
+            return 0;
+        }
+        return advanceLocked(nowMillis);
+    }
+
+    private boolean isCurrent(long nowMillis) {
+        return Math.floorDiv(nowMillis, tickMillis) <= currentTick && !hasDue;
+    }
+
+    // Called holding the lock; releases it before running the tasks
+    private int advanceLocked(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<Timeout> expired;
+        try {
+            while (currentTick < targetTick) {
+                if (size == due.size()) {
+                    // Nothing left in the wheels; skip the idle ticks
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                cascade();
+                drainSlot(0, (int) (currentTick & SLOT_MASK));
+            }
+            expired = new ArrayList<>(due);
+            due.clear();
+            hasDue = false;
+            size -= expired.size();
+        } finally {
+            lock.unlock();
+        }
+        expired.sort(Comparator.comparingLong(Timeout::deadlineMillis));
+        for (Timeout timeout : expired) {
+            timeout.task.run();
+        }
+        return expired.size();
+    }
+
+    /**
+     * Tasks scheduled and neither run nor cancelled.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Re-places the tasks of each wheel whose slot turns over at this tick, coarsest first
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS && ((currentTick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) == 0) {
+            level++;
+        }
+        for (int l = level - 1; l >= 1; l--) {
+            drainSlot(l, (int) ((currentTick >>> (SLOT_BITS * l)) & SLOT_MASK));
+        }
+    }
+
+    private void drainSlot(int level, int slot) {
+        Timeout timeout = heads[level][slot];
+        heads[level][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.level = -1;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long delta = timeout.tick - currentTick;
+        if (delta <= 0) {
+            timeout.level = -1;
+            due.add(timeout);
+            hasDue = true;
+            return;
+        }
+        long tick = delta < SPAN_TICKS ? timeout.tick : currentTick + SPAN_TICKS - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && Math.min(delta, SPAN_TICKS - 1) >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.next = heads[level][slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        heads[level][slot] = timeout;
+    }
+
+    private boolean cancel(Timeout timeout) {
+        lock.lock();
+        try {
+            if (timeout.level < 0) {
+                // Already handed out to run, or waiting in the due list
+                if (!due.remove(timeout)) {
+                    return false;
+                }
+                hasDue = !due.isEmpty();
+            } else {
+                if (timeout.prev == null) {
+                    heads[timeout.level][timeout.slot] = timeout.next;
+                } else {
+                    timeout.prev.next = timeout.next;
+                }
+                if (timeout.next != null) {
+                    timeout.next.prev = timeout.prev;
+                }
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.level = -1;
+            }
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Handle to a scheduled task.
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final long tick;
+        private final long deadlineMillis;
+        private final Runnable task;
+        // Guarded by the wheel's lock; level -1 means not in any slot
+        private int level = -1;
+        private int slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, long tick, long deadlineMillis, Runnable task) {
+            this.wheel = wheel;
+            this.tick = tick;
+            this.deadlineMillis = deadlineMillis;
+            this.task = task;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * Stops the task from running. Returns false if it has already been handed out to run.
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+import com.research.util.BloomFilter;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Management")
+@Feature("Unknown Plate Filter")
+class BloomFilterTest {
+
+    @Test
+    @Story("No false negatives and few false positives")
+    void shouldKeepFalsePositivesNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("RES-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("res-" + i));
+            if (filter.mightContain("UNK-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertTrue(filter.sizeInBytes() < 16_000);
+    }
+}
@@ -0,0 +1,113 @@
+import com.research.model.Vehicle;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.EntryDecision;
+import com.research.service.GateLaneService;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import com.research.util.EpochClock;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Epic("Traffic Flow")
+@Feature("Entry Fast Path")
+class EntryFastPathTest {
+
+    private static final int VEHICLES = 1_000;
+    private static final int WARMUP_CALLS = 200_000;
+    private static final int MEASURED_CALLS = 10_000;
+    private static final int ROUNDS = 5;
+    // Slack for the odd allocation of the measurement itself; far below one byte per call
+    private static final long ALLOWED_BYTES = 1_024;
+
+    private TrafficService trafficService;
+    private int nextVehicle;
+
+    @BeforeEach
+    void setUp() {
+        ValidationService validationService = new ValidationService();
+        VehicleRepository vehicleRepository = new VehicleRepository();
+        GateLaneService laneService = new GateLaneService(new GateLaneRepository(), validationService);
+        trafficService = new TrafficService(new GatePassRepository(), vehicleRepository, laneService,
+                new VisitReservationRepository(), validationService);
+
+        laneService.addLane(1, 1, Integer.MAX_VALUE);
+        for (int i = 1; i <= VEHICLES; i++) {
+            vehicleRepository.save(new Vehicle(i, "FAST-" + i, null, null, true));
+        }
+    }
+
+    private int nextVehicleId() {
+        nextVehicle = nextVehicle == VEHICLES ? 1 : nextVehicle + 1;
+        return nextVehicle;
+    }
+
+    /**
+     * Fewest bytes the current thread allocated over MEASURED_CALLS decisions in any of
+     * ROUNDS rounds, after a warm-up long enough for the JIT to compile the path.
+     */
+    private static long allocatedBytes(IntSupplier decision) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int sink = 0;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            sink += decision.getAsInt();
+        }
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                sink += decision.getAsInt();
+            }
+            fewest = Math.min(fewest, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+        assertNotEquals(Integer.MIN_VALUE, sink);
+        return fewest;
+    }
+
+    private static void assumeAllocationCounting() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+    }
+
+    @Test
+    @Story("Resident entry decisions allocate nothing")
+    void shouldDecideResidentEntriesWithoutAllocating() {
+        assumeAllocationCounting();
+        assertTrue(EntryDecision.isAdmitted(trafficService.decideEntry(1)));
+
+        long allocated = allocatedBytes(() -> trafficService.decideEntry(nextVehicleId()));
+
+        assertTrue(allocated <= ALLOWED_BYTES,
+                "decideEntry allocated " + allocated + " bytes over " + MEASURED_CALLS + " calls");
+    }
+
+    @Test
+    @Story("Plate entry decisions allocate nothing")
+    void shouldDecidePlateEntriesWithoutAllocating() {
+        assumeAllocationCounting();
+        String[] plates = new String[VEHICLES];
+        for (int i = 0; i < VEHICLES; i++) {
+            plates[i] = "FAST-" + (i + 1);
+        }
+        assertTrue(EntryDecision.isAdmitted(trafficService.decidePlateEntry(plates[0], 1, EpochClock.now())));
+
+        long allocated = allocatedBytes(
+                () -> trafficService.decidePlateEntry(plates[nextVehicleId() - 1], 1, EpochClock.now()));
+
+        assertTrue(allocated <= ALLOWED_BYTES,
+                "decidePlateEntry allocated " + allocated + " bytes over " + MEASURED_CALLS + " calls");
+    }
+}
@@ -16,6 +16,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Epic("Traffic Management")
@@ -73,4 +76,38 @@ class GateLaneServiceTest {
         assertThrows(BusinessRuleViolationException.class,
                 () -> gateLaneService.updateLaneStatus(1, LaneStatus.OPEN));
     }
+
+    @Test
+    @Story("Close a saturated lane")
+    @Severity(SeverityLevel.NORMAL)
+    void shouldCloseLaneThatReportsBusy() {
+        GateLane full = new GateLane(1, 5, 1, LaneStatus.OPEN);
+        assertTrue(full.tryAdmit());
+        assertEquals(LaneStatus.BUSY, full.getStatus());
+        when(laneRepository.findById(1)).thenReturn(Optional.of(full));
+        when(laneRepository.update(any())).thenAnswer(i -> i.getArgument(0));
+
+        assertEquals(LaneStatus.CLOSED, gateLaneService.updateLaneStatus(1, LaneStatus.CLOSED).getStatus());
+        assertThrows(BusinessRuleViolationException.class,
+                () -> gateLaneService.updateLaneStatus(1, LaneStatus.BUSY));
+    }
+
+    @Test
+    @Story("Pick least utilized lane")
+    @Severity(SeverityLevel.NORMAL)
+    void shouldPickLeastUtilizedLane() {
+        when(laneRepository.findByLaneNumber(anyInt())).thenReturn(Optional.empty());
+        when(laneRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        GateLane first = gateLaneService.addLane(1, 1, 2);
+        GateLane second = gateLaneService.addLane(2, 2, 4);
+        when(laneRepository.findById(1)).thenReturn(Optional.of(first));
+
+        assertSame(first, gateLaneService.getAvailableLane().orElseThrow());
+
+        gateLaneService.increaseLaneLoad(1);
+
+        assertSame(second, gateLaneService.getAvailableLane().orElseThrow());
+        verify(laneRepository, never()).update(any());
+    }
 }
@@ -0,0 +1,139 @@
+import com.research.exception.BusinessRuleViolationException;
+import com.research.exception.NotFoundException;
+import com.research.model.GateLane;
+import com.research.model.GatePass;
+import com.research.model.PassStatus;
+import com.research.model.Vehicle;
+import com.research.model.VisitReservation;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.GateLaneService;
+import com.research.service.GatePassPipeline;
+import com.research.service.TrafficMetrics;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Flow")
+@Feature("Gate Pass Pipeline")
+class GatePassPipelineTest {
+
+    private GatePassRepository passRepository;
+    private VehicleRepository vehicleRepository;
+    private GateLaneService laneService;
+    private VisitReservationRepository reservationRepository;
+    private TrafficService trafficService;
+    private GatePassPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        passRepository = new GatePassRepository();
+        vehicleRepository = new VehicleRepository();
+        ValidationService validationService = new ValidationService();
+        laneService = new GateLaneService(new GateLaneRepository(), validationService);
+        reservationRepository = new VisitReservationRepository();
+        trafficService = new TrafficService(passRepository, vehicleRepository, laneService,
+                reservationRepository, validationService);
+        pipeline = new GatePassPipeline(trafficService, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    @Story("Approve and persist queued entries")
+    void shouldApproveAndPersistEntries() throws Exception {
+        laneService.addLane(1, 1, 30);
+        laneService.addLane(2, 2, 30);
+        List<CompletableFuture<GatePass>> futures = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            vehicleRepository.save(new Vehicle(i, "CAR-" + i, null, null, true));
+            futures.add(pipeline.submitEntry(i));
+        }
+
+        for (CompletableFuture<GatePass> future : futures) {
+            assertEquals(PassStatus.APPROVED, future.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(20, passRepository.findByStatus(PassStatus.APPROVED).size());
+    }
+
+    @Test
+    @Story("Fail unknown and blocked vehicles")
+    void shouldFailUnknownAndBlockedVehicles() {
+        laneService.addLane(1, 1, 30);
+        vehicleRepository.save(new Vehicle(1, "BLK-001", null, null, false));
+
+        ExecutionException unknown = assertThrows(ExecutionException.class,
+                () -> pipeline.submitEntry(99).get(5, TimeUnit.SECONDS));
+        ExecutionException blocked = assertThrows(ExecutionException.class,
+                () -> pipeline.submitEntry(1).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(NotFoundException.class, unknown.getCause());
+        assertInstanceOf(BusinessRuleViolationException.class, blocked.getCause());
+        assertTrue(passRepository.findAll().isEmpty());
+    }
+
+    @Test
+    @Story("Give the lane slot back when persistence fails")
+    void shouldReleaseLaneSlotWhenPersistenceFails() {
+        GateLaneRepository laneRepository = new GateLaneRepository();
+        GateLaneService lanes = new GateLaneService(laneRepository, new ValidationService());
+        GatePassRepository failingRepository = new GatePassRepository() {
+            @Override
+            public GatePass save(GatePass pass) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+        TrafficService trafficService = new TrafficService(failingRepository, vehicleRepository, lanes,
+                new VisitReservationRepository(), new ValidationService());
+        lanes.addLane(1, 1, 30);
+        vehicleRepository.save(new Vehicle(1, "CAR-1", null, null, true));
+
+        try (GatePassPipeline failing = new GatePassPipeline(trafficService, 8)) {
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> failing.submitEntry(1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+        }
+        assertEquals(0, laneRepository.findById(1).orElseThrow().getCurrentLoad());
+    }
+
+    @Test
+    @Story("Visitors hold one lane slot until completed on either path")
+    void shouldHoldAndReleaseVisitorSlotsOnBothPaths() throws Exception {
+        GateLane lane = laneService.addLane(1, 1, 30);
+        LocalDateTime now = LocalDateTime.now();
+        reservationRepository.save(new VisitReservation(1, "Nour", "VIS-001", now.toLocalDate(),
+                now.toLocalTime().truncatedTo(ChronoUnit.MINUTES), 1));
+        reservationRepository.save(new VisitReservation(2, "Adel", "VIS-002", now.toLocalDate(),
+                now.toLocalTime().truncatedTo(ChronoUnit.MINUTES), 1));
+
+        GatePass direct = trafficService.requestVisitorEntry("VIS-001");
+        GatePass pipelined = pipeline.submitVisitorEntry("VIS-002").get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, lane.getCurrentLoad());
+        trafficService.completePass(direct.getId());
+        trafficService.completePass(pipelined.getId());
+        assertEquals(0, lane.getCurrentLoad());
+        assertEquals(1L, trafficService.getMetrics().outcomes()
+                .get(TrafficMetrics.Operation.PIPELINE_VISITOR_ENTRY).get(TrafficMetrics.Outcome.APPROVED));
+    }
+}
@@ -0,0 +1,97 @@
+import com.research.model.*;
+import com.research.repository.GatePassRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Flow")
+@Feature("Gate Pass Repository")
+class GatePassRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private GatePassRepository repository;
+    private Vehicle vehicle;
+    private GateLane lane1;
+    private GateLane lane2;
+
+    @BeforeEach
+    void setUp() {
+        repository = new GatePassRepository();
+        vehicle = new Vehicle(1, "ABC-123", null, null, true);
+        lane1 = new GateLane(1, 1, 10, LaneStatus.OPEN);
+        lane2 = new GateLane(2, 2, 10, LaneStatus.OPEN);
+    }
+
+    private GatePass savePass(GateLane lane, LocalDateTime passTime) {
+        GatePass pass = new GatePass(0, vehicle, lane, PassDirection.ENTRY);
+        pass.setPassTime(passTime);
+        return repository.save(pass);
+    }
+
+    @Test
+    @Story("Move pass between status buckets")
+    void shouldMovePassBetweenStatusBuckets() {
+        GatePass pass = savePass(lane1, NOON);
+
+        pass.setStatus(PassStatus.APPROVED);
+        repository.update(pass);
+
+        assertTrue(repository.findPendingPasses().isEmpty());
+        assertEquals(1, repository.findByStatus(PassStatus.APPROVED).size());
+    }
+
+    @Test
+    @Story("Count lane traffic in a time range")
+    void shouldCountLaneTrafficInclusiveOfBounds() {
+        savePass(lane1, NOON.minusMinutes(1));
+        savePass(lane1, NOON);
+        savePass(lane1, NOON.plusMinutes(30));
+        savePass(lane1, NOON.plusHours(1));
+        savePass(lane1, NOON.plusHours(1).plusSeconds(1));
+        savePass(lane2, NOON.plusMinutes(10));
+
+        assertEquals(3, repository.countByLaneIdBetween(1, NOON, NOON.plusHours(1)));
+        assertEquals(1, repository.countByLaneIdBetween(2, NOON, NOON.plusHours(1)));
+    }
+
+    @Test
+    @Story("Re-index pass when its time changes")
+    void shouldFollowPassTimeChanges() {
+        GatePass pass = savePass(lane1, NOON);
+
+        pass.setPassTime(NOON.plusHours(3));
+        repository.update(pass);
+
+        assertEquals(0, repository.countByLaneIdBetween(1, NOON, NOON.plusHours(1)));
+        assertEquals(pass, repository.findByLaneIdBetween(1, NOON.plusHours(2), NOON.plusHours(4)).get(0));
+    }
+
+    @Test
+    @Story("Aggregate pass history per lane and hour")
+    void shouldCountHistoryPerLaneAndHour() {
+        savePass(lane1, NOON);
+        savePass(lane1, NOON.plusMinutes(59));
+        savePass(lane1, NOON.plusHours(1));
+        GatePass denied = savePass(lane2, NOON.plusHours(5));
+        denied.setStatus(PassStatus.DENIED);
+        repository.update(denied);
+
+        long dayStart = NOON.toLocalDate().atStartOfDay(java.time.ZoneId.systemDefault()).toEpochSecond();
+        Map<Integer, int[]> counts = repository.getHistory().countByLaneAndHour(dayStart, dayStart + 24 * 3600);
+
+        assertEquals(2, counts.get(1)[12]);
+        assertEquals(1, counts.get(1)[13]);
+        assertEquals(1, counts.get(2)[17]);
+        assertEquals(2, counts.size());
+        assertEquals(4, repository.getHistory().size());
+        assertEquals(1, repository.getHistory().countByStatus()[PassStatus.DENIED.ordinal()]);
+    }
+}
@@ -0,0 +1,124 @@
+import com.research.exception.DuplicateIdException;
+import com.research.exception.NotFoundException;
+import com.research.model.Resident;
+import com.research.repository.ResidentRepository;
+import com.research.util.EpochClock;
+import com.research.util.FixedEpochClock;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Persistence")
+@Feature("In-Memory Repository")
+class InMemoryRepositoryTest {
+
+    private ResidentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ResidentRepository();
+    }
+
+    private Resident resident(int id) {
+        return new Resident(id, "Resident " + id, "r" + id + "@test.com", "+20123456789", "U-" + id);
+    }
+
+    @Test
+    @Story("Reject duplicate id")
+    void shouldRejectDuplicateId() {
+        repository.save(resident(7));
+
+        assertThrows(DuplicateIdException.class, () -> repository.save(resident(7)));
+    }
+
+    @Test
+    @Story("Generated ids skip explicit ids")
+    void shouldSkipIdsTakenExplicitly() {
+        repository.save(resident(1));
+        Resident generated = repository.save(resident(0));
+
+        assertEquals(2, generated.getId());
+    }
+
+    @Test
+    @Story("Delete missing entity")
+    void shouldFailDeletingMissingEntity() {
+        assertThrows(NotFoundException.class, () -> repository.delete(42));
+    }
+
+    @Test
+    @Story("Index lookups follow updates")
+    void shouldFollowIndexedFieldChanges() {
+        Resident first = repository.save(resident(1));
+        repository.save(resident(2));
+        first.setUnitNumber("u-2");
+        repository.update(first);
+
+        List<Resident> sharedUnit = repository.findByIndex("unitNumber", "U-2");
+
+        assertEquals(List.of(1, 2), sharedUnit.stream().map(Resident::getId).toList());
+        assertTrue(repository.findByUnitNumber("U-1").isEmpty());
+    }
+
+    @Test
+    @Story("Concurrent saves keep every entity")
+    void shouldKeepAllEntitiesUnderConcurrentSaves() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        Resident saved = repository.save(resident(0));
+                        repository.update(saved);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Resident> all = repository.findAll();
+        Set<Integer> ids = new HashSet<>();
+        all.forEach(r -> ids.add(r.getId()));
+
+        assertEquals(threads * perThread, all.size());
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    @Story("Timestamp writes from the pluggable clock")
+    void shouldTimestampFromPluggableClock() {
+        FixedEpochClock clock = new FixedEpochClock(1_700_000_000_000L);
+        EpochClock.setCurrent(clock);
+        try {
+            Resident saved = repository.save(resident(0));
+            clock.advance(Duration.ofMinutes(5));
+            repository.update(saved);
+
+            assertEquals(1_700_000_000_000L, saved.getCreatedAtMillis());
+            assertEquals(1_700_000_300_000L, saved.getUpdatedAtMillis());
+            assertEquals(EpochClock.toLocalDateTime(1_700_000_300_000L), saved.getUpdatedAt());
+        } finally {
+            EpochClock.setCurrent(EpochClock.SYSTEM);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import com.research.model.*;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.EntryDecision;
+import com.research.service.GateLaneService;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Flow")
+@Feature("Lane Capacity")
+class LaneCapacityConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private int runConcurrently(int attemptsPerThread, Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        try {
+                            attempt.run();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return failures.get();
+    }
+
+    @Test
+    @Story("Never reserve past capacity")
+    void shouldNeverReservePastCapacity() throws Exception {
+        GateLane lane = new GateLane(1, 1, 50, LaneStatus.OPEN);
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(1_000, () -> {
+            if (lane.tryReserve()) {
+                reserved.incrementAndGet();
+            }
+        });
+
+        assertEquals(50, reserved.get());
+        assertEquals(50, lane.getCurrentLoad());
+        assertEquals(LaneStatus.BUSY, lane.getStatus());
+    }
+
+    @Test
+    @Story("Parallel approvals respect lane capacity")
+    void shouldApproveAtMostCapacityUnderParallelApprovals() throws Exception {
+        GatePassRepository passRepository = new GatePassRepository();
+        VehicleRepository vehicleRepository = new VehicleRepository();
+        GateLaneService laneService = new GateLaneService(new GateLaneRepository(), new ValidationService());
+        TrafficService trafficService = new TrafficService(passRepository, vehicleRepository, laneService,
+                new VisitReservationRepository(), new ValidationService());
+
+        GateLane lane = laneService.addLane(1, 1, 10);
+        int passes = 200;
+        for (int i = 1; i <= passes; i++) {
+            Vehicle vehicle = vehicleRepository.save(new Vehicle(i, "CAR-" + i, null, null, true));
+            passRepository.save(new GatePass(0, vehicle, lane, PassDirection.ENTRY));
+        }
+        AtomicInteger nextPass = new AtomicInteger(1);
+
+        int failures = runConcurrently(passes / THREADS + 1, () -> {
+            int passId = nextPass.getAndIncrement();
+            if (passId <= passes) {
+                trafficService.approvePass(passId);
+            }
+        });
+
+        assertEquals(10, passRepository.findByStatus(PassStatus.APPROVED).size());
+        assertEquals(passes - 10, failures);
+        assertEquals(10, lane.getCurrentLoad());
+    }
+
+    @Test
+    @Story("Fast-path decisions respect lane capacity")
+    void shouldDecideEntriesWithinCapacity() throws Exception {
+        VehicleRepository vehicleRepository = new VehicleRepository();
+        GateLaneService laneService = new GateLaneService(new GateLaneRepository(), new ValidationService());
+        TrafficService trafficService = new TrafficService(new GatePassRepository(), vehicleRepository, laneService,
+                new VisitReservationRepository(), new ValidationService());
+        laneService.addLane(1, 7, 20);
+        vehicleRepository.save(new Vehicle(1, "CAR-1", null, null, true));
+        vehicleRepository.save(new Vehicle(2, "CAR-2", null, null, false));
+        AtomicInteger admitted = new AtomicInteger();
+
+        runConcurrently(100, () -> {
+            int decision = trafficService.decideEntry(1);
+            if (EntryDecision.isAdmitted(decision)) {
+                assertEquals(7, EntryDecision.laneNumber(decision));
+                admitted.incrementAndGet();
+            } else {
+                assertEquals(EntryDecision.NO_LANE_AVAILABLE, EntryDecision.code(decision));
+            }
+        });
+
+        assertEquals(20, admitted.get());
+        assertEquals(EntryDecision.VEHICLE_NOT_ALLOWED, trafficService.decideEntry(2));
+        assertEquals(EntryDecision.VEHICLE_NOT_FOUND, trafficService.decideEntry(99));
+    }
+}
@@ -0,0 +1,51 @@
+import com.research.util.LatencyHistogram;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Management")
+@Feature("Gate Metrics")
+class LatencyHistogramTest {
+
+    @Test
+    @Story("Report percentiles within bucket precision")
+    void shouldReportPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(5_000_000, snapshot.percentile(50), 5_000_000 / 64.0);
+        assertEquals(9_900_000, snapshot.percentile(99), 9_900_000 / 64.0);
+        assertEquals(10_000_000, snapshot.getMax(), 10_000_000 / 64.0);
+        assertEquals(5_000_500, snapshot.getMean(), 1);
+    }
+
+    @Test
+    @Story("Keep every record from concurrent threads")
+    void shouldCountConcurrentRecords() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(80_000, histogram.snapshot().getCount());
+    }
+}
@@ -0,0 +1,107 @@
+import com.research.loadgen.ArrivalPattern;
+import com.research.loadgen.LoadEvent;
+import com.research.loadgen.LoadFixture;
+import com.research.loadgen.LoadReport;
+import com.research.loadgen.LoadRunner;
+import com.research.loadgen.LoadScenario;
+import com.research.loadgen.ScheduleFile;
+import com.research.loadgen.ScheduleGenerator;
+import com.research.model.PassStatus;
+import com.research.util.EpochClock;
+import com.research.util.FixedEpochClock;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Flow")
+@Feature("Load Generation")
+class LoadGeneratorTest {
+
+    private static final EpochClock NOON = new FixedEpochClock(
+            EpochClock.toEpochMillis(LocalDateTime.of(2030, 1, 15, 12, 0)));
+
+    private static LoadScenario smallScenario(ArrivalPattern pattern) {
+        return LoadScenario.defaults().with(Map.of(
+                "residents", "50", "reservations", "20", "pattern", pattern.name(),
+                "arrivalsPerSecond", "100", "durationSeconds", "5", "visitorShare", "0.2", "threads", "4"));
+    }
+
+    @Test
+    @Story("Same scenario gives the same schedule")
+    void shouldGenerateDeterministicSchedules() {
+        LoadScenario scenario = smallScenario(ArrivalPattern.RUSH_HOUR);
+
+        List<LoadEvent> first = ScheduleGenerator.generate(scenario);
+
+        assertFalse(first.isEmpty());
+        assertEquals(first, ScheduleGenerator.generate(scenario));
+        assertNotEquals(first, ScheduleGenerator.generate(scenario.with(Map.of("seed", "7"))));
+        assertTrue(first.stream().anyMatch(event -> event.kind() == LoadEvent.Kind.VISITOR_ENTRY));
+    }
+
+    @Test
+    @Story("Recorded schedules replay exactly")
+    void shouldReplayRecordedSchedule(@TempDir Path dir) throws Exception {
+        LoadScenario scenario = smallScenario(ArrivalPattern.VISITOR_BURST);
+        List<LoadEvent> events = ScheduleGenerator.generate(scenario);
+        Path file = dir.resolve("run.csv");
+
+        ScheduleFile.write(file, scenario, events);
+        ScheduleFile.Recording recording = ScheduleFile.read(file);
+
+        assertEquals(scenario, recording.scenario());
+        assertEquals(events, recording.events());
+    }
+
+    @Test
+    @Story("Run reports admissions, denials and lane utilization")
+    void shouldReportEveryArrival() throws Exception {
+        LoadScenario scenario = smallScenario(ArrivalPattern.POISSON);
+        List<LoadEvent> events = ScheduleGenerator.generate(scenario);
+
+        LoadReport report = new LoadRunner(new LoadFixture(scenario, NOON), scenario.threads(), 50).run(events);
+
+        assertEquals(events.size(), report.getArrivals());
+        assertEquals(0, report.getErrors());
+        assertEquals(events.size(), report.getAdmitted() + report.getDenied());
+        assertEquals(report.getAdmitted(), report.getLanes().stream().mapToLong(LoadReport.LaneUtilization::admitted).sum());
+        assertTrue(report.getDenied() > 0, "disallowed vehicles and unreserved visitors are refused");
+        assertTrue(report.latencyPercentile(50) <= report.latencyPercentile(99));
+    }
+
+    @Test
+    @Story("Reserved visitors are admitted and their passes completed")
+    void shouldAdmitReservedVisitors() throws Exception {
+        // Lanes roomy enough that only disallowed vehicles and unreserved plates are refused
+        LoadScenario scenario = smallScenario(ArrivalPattern.VISITOR_BURST)
+                .with(Map.of("laneCapacityPerMinute", "10000"));
+        List<LoadEvent> events = ScheduleGenerator.generate(scenario);
+        long visitors = events.stream().filter(event -> event.kind() == LoadEvent.Kind.VISITOR_ENTRY).count();
+        long unreserved = events.stream()
+                .filter(event -> event.kind() == LoadEvent.Kind.VISITOR_ENTRY && event.plate().startsWith("UNR-"))
+                .count();
+        long disallowed = events.stream()
+                .filter(event -> event.kind() == LoadEvent.Kind.RESIDENT_ENTRY && event.vehicleId() % 25 == 0)
+                .count();
+        LoadFixture fixture = new LoadFixture(scenario, NOON);
+
+        LoadReport report = new LoadRunner(fixture, scenario.threads(), 50).run(events);
+
+        assertTrue(visitors > unreserved, "the schedule has reserved visitors");
+        assertEquals(0, report.getErrors());
+        assertEquals(unreserved + disallowed, report.getDenied());
+        assertEquals(events.size() - unreserved - disallowed, report.getAdmitted());
+        assertTrue(fixture.getPassRepository().findByStatus(PassStatus.APPROVED).isEmpty());
+        assertTrue(fixture.getPassRepository().findByStatus(PassStatus.PENDING).isEmpty());
+        assertEquals(report.getAdmitted(), fixture.getPassRepository().findByStatus(PassStatus.COMPLETED).size());
+    }
+}
@@ -0,0 +1,128 @@
+import com.research.model.*;
+import com.research.persistence.ArchivedPass;
+import com.research.persistence.FsyncPolicy;
+import com.research.persistence.PassArchive;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.GateLaneService;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Persistence")
+@Feature("Pass Archive")
+class PassArchiveTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @TempDir
+    Path dataDir;
+
+    private final Vehicle vehicle = new Vehicle(7, "ABC-123", null, null, true);
+    private final GateLane lane = new GateLane(1, 1, 10, LaneStatus.OPEN);
+
+    private GatePass pass(int id, PassStatus status, LocalDateTime passTime) {
+        GatePass pass = new GatePass(id, vehicle, lane, PassDirection.ENTRY);
+        pass.setStatus(status);
+        pass.setPassTime(passTime);
+        return pass;
+    }
+
+    @Test
+    @Story("Archived passes survive reopening")
+    void shouldKeepRecordsAcrossReopen() throws Exception {
+        Path file = dataDir.resolve("archive.dat");
+        try (PassArchive archive = PassArchive.open(file)) {
+            archive.append(pass(1, PassStatus.COMPLETED, NOON));
+            archive.append(pass(2, PassStatus.DENIED, NOON.plusHours(2)));
+        }
+
+        try (PassArchive archive = PassArchive.open(file)) {
+            assertEquals(2, archive.size());
+            assertEquals(1, archive.countByLaneIdBetween(1, NOON, NOON.plusHours(1)));
+            List<ArchivedPass> history = archive.findByVehicleId(7);
+            assertEquals(PassStatus.DENIED, history.get(1).status());
+            assertEquals(2, history.get(1).id());
+        }
+    }
+
+    @Test
+    @Story("Lane range queries follow pass time, not closing order")
+    void shouldQueryLaneRangesByPassTime() throws Exception {
+        Path file = dataDir.resolve("archive.dat");
+        try (PassArchive archive = PassArchive.open(file, FsyncPolicy.NEVER)) {
+            archive.append(pass(1, PassStatus.COMPLETED, NOON.plusMinutes(30)));
+            archive.append(pass(2, PassStatus.COMPLETED, NOON));
+            archive.append(pass(3, PassStatus.DENIED, NOON.plusHours(3)));
+            archive.append(pass(4, PassStatus.COMPLETED, NOON.plusMinutes(10)));
+        }
+
+        try (PassArchive archive = PassArchive.open(file, FsyncPolicy.NEVER)) {
+            assertEquals(3, archive.countByLaneIdBetween(1, NOON, NOON.plusHours(1)));
+            assertEquals(0, archive.countByLaneIdBetween(2, NOON, NOON.plusHours(4)));
+            List<ArchivedPass> hour = archive.findByLaneIdBetween(1, NOON, NOON.plusHours(1));
+            assertEquals(List.of(2, 4, 1), hour.stream().map(ArchivedPass::id).toList());
+        }
+    }
+
+    @Test
+    @Story("Closed passes move from the heap to the archive")
+    void shouldMoveClosedPassesOutOfTheRepository() throws Exception {
+        GatePassRepository repository = new GatePassRepository();
+        try (PassArchive archive = PassArchive.open(dataDir.resolve("archive.dat"))) {
+            repository.attachArchive(archive);
+            GatePass live = repository.save(pass(0, PassStatus.APPROVED, NOON));
+            GatePass closed = repository.save(pass(0, PassStatus.APPROVED, NOON));
+
+            closed.setStatus(PassStatus.COMPLETED);
+            repository.closePass(closed);
+
+            assertFalse(repository.existsById(closed.getId()));
+            assertTrue(repository.existsById(live.getId()));
+            assertEquals(2, repository.countByLaneIdBetween(1, NOON, NOON.plusMinutes(1)));
+            assertEquals(1, repository.findArchivedByVehicleId(7).size());
+        }
+    }
+
+    @Test
+    @Story("Traffic queries include archived passes")
+    void shouldMergeArchivedPassesIntoTrafficQueries() throws Exception {
+        GatePassRepository repository = new GatePassRepository();
+        VehicleRepository vehicles = new VehicleRepository();
+        vehicles.save(vehicle);
+        GateLaneRepository lanes = new GateLaneRepository();
+        lanes.save(lane);
+        ValidationService validationService = new ValidationService();
+        TrafficService trafficService = new TrafficService(repository, vehicles,
+                new GateLaneService(lanes, validationService), new VisitReservationRepository(), validationService);
+        try (PassArchive archive = PassArchive.open(dataDir.resolve("archive.dat"), FsyncPolicy.NEVER)) {
+            repository.attachArchive(archive);
+            GatePass live = repository.save(pass(0, PassStatus.APPROVED, NOON.plusHours(1)));
+            GatePass closed = repository.save(pass(0, PassStatus.APPROVED, NOON));
+            closed.setStatus(PassStatus.COMPLETED);
+            repository.closePass(closed);
+
+            List<GatePass> byLane = trafficService.getPassesByLane(1);
+            assertEquals(List.of(closed.getId(), live.getId()), byLane.stream().map(GatePass::getId).toList());
+            assertEquals(PassStatus.COMPLETED, byLane.get(0).getStatus());
+            assertEquals("ABC-123", byLane.get(0).getVehicle().getPlateNumber());
+            assertEquals(NOON, byLane.get(0).getPassTime());
+            assertEquals(2, trafficService.getPassesByVehicle(7).size());
+            assertEquals(2, trafficService.getAllPasses().size());
+            assertEquals(List.of(closed.getId()), trafficService.getPassesByLaneBetween(1, NOON, NOON.plusMinutes(30))
+                    .stream().map(GatePass::getId).toList());
+        }
+    }
+}
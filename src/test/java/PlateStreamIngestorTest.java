@@ -0,0 +1,169 @@
+import com.research.model.Vehicle;
+import com.research.model.VisitReservation;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.EntryDecision;
+import com.research.service.GateLaneService;
+import com.research.service.PlateRead;
+import com.research.service.PlateStreamIngestor;
+import com.research.service.TrafficService;
+import com.research.service.ValidationService;
+import com.research.util.EpochClock;
+import com.research.util.FixedEpochClock;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Flow")
+@Feature("Plate Stream Ingestion")
+class PlateStreamIngestorTest {
+
+    private TrafficService trafficService;
+    private GateLaneService laneService;
+    private VehicleRepository vehicleRepository;
+    private long noon;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        noon = EpochClock.toEpochMillis(LocalDateTime.of(today, LocalTime.NOON));
+        EpochClock.setCurrent(new FixedEpochClock(noon));
+        vehicleRepository = new VehicleRepository();
+        VisitReservationRepository reservationRepository = new VisitReservationRepository();
+        laneService = new GateLaneService(new GateLaneRepository(), new ValidationService());
+        trafficService = new TrafficService(new GatePassRepository(), vehicleRepository, laneService,
+                reservationRepository, new ValidationService());
+
+        laneService.addLane(1, 4, 100);
+        vehicleRepository.save(new Vehicle(1, "RES-001", null, null, true));
+        vehicleRepository.save(new Vehicle(2, "RES-002", null, null, false));
+        reservationRepository.save(new VisitReservation(1, "Nour", "VIS-001", today, LocalTime.NOON, 1));
+        reservationRepository.save(new VisitReservation(2, "Adel", "VIS-002", today.plusDays(1), LocalTime.NOON, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        EpochClock.setCurrent(EpochClock.SYSTEM);
+    }
+
+    @Test
+    @Story("Decide plate reads and drop repeats within the window")
+    void shouldDecideReadsAndDropRepeats() throws Exception {
+        String stream = String.join("\n",
+                read(1000, 4, "RES-001"),
+                read(1500, 4, "res-001"),
+                read(2000, 4, "RES-002"),
+                read(3000, 4, "VIS-001"),
+                read(3100, 4, "VIS-002"),
+                read(3200, 4, "UNKNOWN-9"),
+                "# camera restarted",
+                "not-a-read",
+                read(9000, 4, "X".repeat(PlateStreamIngestor.MAX_LINE_BYTES)),
+                "",
+                read(7000, 4, "RES-001") + "\r");
+        Map<String, Integer> decisions = new LinkedHashMap<>();
+        PlateStreamIngestor ingestor = new PlateStreamIngestor(trafficService, Duration.ofSeconds(5), 1_000);
+
+        PlateStreamIngestor.IngestStats stats = ingestor.ingest(
+                new ByteArrayInputStream(stream.getBytes(StandardCharsets.US_ASCII)),
+                (PlateRead read, int decision) -> decisions.merge(read.plateNumber(), decision, (a, b) -> b));
+
+        assertEquals(EntryDecision.admitted(4), decisions.get("RES-001"));
+        assertEquals(EntryDecision.VEHICLE_NOT_ALLOWED, decisions.get("RES-002"));
+        assertEquals(EntryDecision.admitted(4), decisions.get("VIS-001"));
+        assertEquals(EntryDecision.VEHICLE_NOT_ALLOWED, decisions.get("VIS-002"));
+        assertEquals(EntryDecision.VEHICLE_NOT_FOUND, decisions.get("UNKNOWN-9"));
+        assertEquals(7, stats.getReads());
+        assertEquals(1, stats.getDuplicates());
+        assertEquals(2, stats.getMalformed());
+        assertEquals(3, stats.getDecisions(EntryDecision.ADMITTED));
+    }
+
+    @Test
+    @Story("Decide each read for its own lane and time")
+    void shouldDecideReadsForTheirLaneAndTime() throws Exception {
+        long tomorrowNoon = noon + Duration.ofDays(1).toMillis();
+        String stream = String.join("\n",
+                read(0, 9, "RES-001"),
+                tomorrowNoon + ",4,VIS-002",
+                (noon - Duration.ofHours(2).toMillis()) + ",4,VIS-001",
+                // Late read of a plate seen after it: still within the window, so a repeat
+                tomorrowNoon - 1000 + ",4,VIS-002");
+        Map<String, Integer> decisions = new LinkedHashMap<>();
+        PlateStreamIngestor ingestor = new PlateStreamIngestor(trafficService, Duration.ofSeconds(5), 1_000);
+
+        PlateStreamIngestor.IngestStats stats = ingestor.ingest(
+                new ByteArrayInputStream(stream.getBytes(StandardCharsets.US_ASCII)),
+                (PlateRead read, int decision) -> decisions.put(read.plateNumber(), decision));
+
+        assertEquals(EntryDecision.NO_LANE_AVAILABLE, decisions.get("RES-001"));
+        assertEquals(EntryDecision.admitted(4), decisions.get("VIS-002"));
+        assertEquals(EntryDecision.VEHICLE_NOT_ALLOWED, decisions.get("VIS-001"));
+        assertEquals(1, stats.getDuplicates());
+    }
+
+    @Test
+    @Story("Replayed reads count against lane capacity at their own time")
+    void shouldChargeReplayedReadsAtTheirTime() throws Exception {
+        laneService.addLane(2, 5, 2);
+        for (int id = 3; id <= 5; id++) {
+            vehicleRepository.save(new Vehicle(id, "RES-00" + id, null, null, true));
+        }
+        long lastWeek = noon - Duration.ofDays(7).toMillis();
+        String stream = String.join("\n",
+                lastWeek + ",5,RES-003",
+                lastWeek + 1000 + ",5,RES-004",
+                lastWeek + 2000 + ",5,RES-005",
+                lastWeek + Duration.ofMinutes(2).toMillis() + ",5,RES-003");
+        List<Integer> decisions = new ArrayList<>();
+        PlateStreamIngestor ingestor = new PlateStreamIngestor(trafficService, Duration.ofSeconds(5), 1_000);
+
+        ingestor.ingest(new ByteArrayInputStream(stream.getBytes(StandardCharsets.US_ASCII)),
+                (read, decision) -> decisions.add(decision));
+
+        assertEquals(List.of(EntryDecision.admitted(5), EntryDecision.admitted(5),
+                EntryDecision.NO_LANE_AVAILABLE, EntryDecision.admitted(5)), decisions);
+        assertEquals(2, laneService.getLaneById(2).getRemainingCapacity(), "live capacity is untouched");
+    }
+
+    @Test
+    @Story("Remember a bounded number of plates")
+    void shouldForgetOldestPlatesBeyondLimit() throws Exception {
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            stream.append(i).append(",1,PLT-").append(i).append('\n');
+        }
+        stream.append("10,1,PLT-0\n").append("11,1,PLT-2\n");
+        PlateStreamIngestor ingestor = new PlateStreamIngestor(trafficService, Duration.ofMinutes(1), 2);
+
+        PlateStreamIngestor.IngestStats stats = ingestor.ingest(
+                new ByteArrayInputStream(stream.toString().getBytes(StandardCharsets.US_ASCII)), (read, decision) -> {
+                });
+
+        // PLT-0 was evicted to make room, so its second read is decided again; PLT-2 is still remembered
+        assertEquals(1, stats.getDuplicates());
+        assertEquals(4, stats.getDecided());
+    }
+
+    private String read(long offsetMillis, int laneNumber, String plate) {
+        return (noon + offsetMillis) + "," + laneNumber + "," + plate;
+    }
+}
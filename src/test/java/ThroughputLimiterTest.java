@@ -0,0 +1,47 @@
+import com.research.util.ThroughputLimiter;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Traffic Management")
+@Feature("Lane Throughput Limiter")
+class ThroughputLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @Story("Admit at most the configured permits per minute")
+    void shouldAdmitUpToPermitsWithinWindow() {
+        ThroughputLimiter limiter = ThroughputLimiter.perMinute(6);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire(now));
+        }
+
+        assertFalse(limiter.tryAcquire(now));
+        assertFalse(limiter.hasRoom(now));
+        assertEquals(6, limiter.permitsInUse(now));
+    }
+
+    @Test
+    @Story("Recover capacity as the window slides")
+    void shouldRecoverAsWindowSlides() {
+        ThroughputLimiter limiter = ThroughputLimiter.perMinute(6);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire(now);
+        }
+
+        // One permit comes back every 10 seconds
+        assertFalse(limiter.tryAcquire(now + 9 * SECOND));
+        assertTrue(limiter.tryAcquire(now + 10 * SECOND));
+        assertFalse(limiter.tryAcquire(now + 10 * SECOND));
+        assertEquals(0, limiter.permitsInUse(now + 120 * SECOND));
+    }
+}
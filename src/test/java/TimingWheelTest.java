@@ -0,0 +1,57 @@
+import com.research.util.TimingWheel;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Visitor Management")
+@Feature("Reservation Windows")
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @Story("Run tasks at their deadline across wheel levels")
+    void shouldRunTasksInDeadlineOrder() {
+        TimingWheel wheel = new TimingWheel(1_000, START);
+        List<Long> fired = new ArrayList<>();
+        long[] delays = {
+                TimeUnit.DAYS.toMillis(300), TimeUnit.HOURS.toMillis(5), 2_500, TimeUnit.MINUTES.toMillis(70), 0};
+        for (long delay : delays) {
+            wheel.schedule(START + delay, () -> fired.add(delay));
+        }
+
+        assertEquals(1, wheel.advanceTo(START));
+        assertEquals(0, wheel.advanceTo(START + 2_000));
+        assertEquals(1, wheel.advanceTo(START + 3_000));
+        assertEquals(0, wheel.advanceTo(START + TimeUnit.MINUTES.toMillis(70) - 1_000));
+        assertEquals(2, wheel.advanceTo(START + TimeUnit.HOURS.toMillis(6)));
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.advanceTo(START + TimeUnit.DAYS.toMillis(300)));
+
+        assertEquals(List.of(0L, 2_500L, TimeUnit.MINUTES.toMillis(70), TimeUnit.HOURS.toMillis(5),
+                TimeUnit.DAYS.toMillis(300)), fired);
+    }
+
+    @Test
+    @Story("Cancelled tasks never run")
+    void shouldNotRunCancelledTasks() {
+        TimingWheel wheel = new TimingWheel(1_000, START);
+        List<String> fired = new ArrayList<>();
+        TimingWheel.Timeout cancelled = wheel.schedule(START + 90_000, () -> fired.add("cancelled"));
+        wheel.schedule(START + 90_000, () -> fired.add("kept"));
+
+        assertTrue(cancelled.cancel());
+        wheel.advanceTo(START + 100_000);
+
+        assertEquals(List.of("kept"), fired);
+        assertFalse(cancelled.cancel());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -3,7 +3,11 @@ import com.research.model.*;
 import com.research.repository.GatePassRepository;
 import com.research.repository.VehicleRepository;
 import com.research.repository.VisitReservationRepository;
+import com.research.service.BatchEntryResult;
 import com.research.service.GateLaneService;
+import com.research.service.TrafficMetrics;
+import com.research.service.TrafficMetrics.Operation;
+import com.research.service.TrafficMetrics.Outcome;
 import com.research.service.TrafficService;
 import com.research.service.ValidationService;
 import io.qameta.allure.Epic;
@@ -16,9 +20,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -76,4 +85,53 @@ class TrafficServiceTest {
         assertThrows(BusinessRuleViolationException.class,
                 () -> trafficService.requestEntry(1));
     }
+
+    @Test
+    @Story("Batch entry reports failures per vehicle")
+    void shouldRequestEntriesAndReportFailures() {
+        Vehicle blocked = new Vehicle(2, "BLK-001", null, null, false);
+        GateLane otherLane = new GateLane(2, 3, 5, LaneStatus.OPEN);
+        Vehicle second = new Vehicle(3, "DEF-456", null, null, true);
+        when(vehicleRepository.findById(1)).thenReturn(Optional.of(vehicle));
+        when(vehicleRepository.findById(2)).thenReturn(Optional.of(blocked));
+        when(vehicleRepository.findById(3)).thenReturn(Optional.of(second));
+        when(vehicleRepository.findById(99)).thenReturn(Optional.empty());
+        when(laneService.getAvailableLanes()).thenReturn(List.of(lane, otherLane));
+        when(passRepository.saveAll(any())).thenAnswer(i -> new ArrayList<>(i.getArgument(0)));
+
+        BatchEntryResult result = trafficService.requestEntries(List.of(1, 2, 3, 99, 1));
+
+        assertEquals(2, result.getPasses().size());
+        assertNotEquals(result.getPasses().get(0).getLane(), result.getPasses().get(1).getLane());
+        assertEquals(Set.of(2, 99), result.getFailures().keySet());
+    }
+
+    @Test
+    @Story("Record outcomes and latency per operation")
+    void shouldRecordMetricsPerOperation() {
+        when(vehicleRepository.findById(1)).thenReturn(Optional.of(vehicle));
+        when(vehicleRepository.findById(99)).thenReturn(Optional.empty());
+        when(laneService.getAvailableLane()).thenReturn(Optional.of(lane)).thenReturn(Optional.empty());
+        when(passRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(passRepository.closePass(any())).thenAnswer(i -> i.getArgument(0));
+        GatePass approved = new GatePass(7, vehicle, lane, PassDirection.ENTRY);
+        approved.setStatus(PassStatus.APPROVED);
+        when(passRepository.findById(7)).thenReturn(Optional.of(approved));
+
+        trafficService.requestEntry(1);
+        assertThrows(BusinessRuleViolationException.class, () -> trafficService.requestEntry(1));
+        assertThrows(RuntimeException.class, () -> trafficService.requestEntry(99));
+        trafficService.completePass(7);
+        trafficService.decideEntry(99);
+
+        TrafficMetrics.Snapshot metrics = trafficService.getMetrics();
+        assertEquals(1, metrics.count(Operation.REQUEST_ENTRY, Outcome.PENDING));
+        assertEquals(0, metrics.count(Operation.REQUEST_ENTRY, Outcome.APPROVED));
+        assertEquals(1, metrics.count(Operation.REQUEST_ENTRY, Outcome.NO_LANE));
+        assertEquals(1, metrics.count(Operation.REQUEST_ENTRY, Outcome.NOT_FOUND));
+        assertEquals(3, metrics.latencies().get(Operation.REQUEST_ENTRY).getCount());
+        assertEquals(1, metrics.count(Operation.COMPLETE_PASS, Outcome.COMPLETED));
+        assertEquals(1, metrics.count(Operation.DECIDE_ENTRY, Outcome.NOT_FOUND));
+        assertEquals(Map.of(2, 1L), metrics.completedPassesByLane());
+    }
 }
@@ -0,0 +1,79 @@
+import com.research.exception.BusinessRuleViolationException;
+import com.research.model.Vehicle;
+import com.research.repository.VehicleRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Vehicle Management")
+@Feature("Vehicle Repository")
+class VehicleRepositoryTest {
+
+    private VehicleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new VehicleRepository();
+    }
+
+    @Test
+    @Story("Find vehicle by plate ignoring case")
+    void shouldFindByPlateIgnoringCase() {
+        Vehicle vehicle = repository.save(new Vehicle(1, "ABC-123", null, null, true));
+
+        assertSame(vehicle, repository.findByPlateNumber("abc-123").orElseThrow());
+        assertTrue(repository.plateNumberExists("Abc-123"));
+    }
+
+    @Test
+    @Story("Re-index vehicle when plate changes")
+    void shouldReindexOnPlateChange() {
+        Vehicle vehicle = repository.save(new Vehicle(1, "ABC-123", null, null, true));
+
+        vehicle.setPlateNumber("NEW-999");
+        repository.update(vehicle);
+
+        assertFalse(repository.plateNumberExists("ABC-123"));
+        assertSame(vehicle, repository.findByPlateNumber("new-999").orElseThrow());
+    }
+
+    @Test
+    @Story("Remove plate from index on delete")
+    void shouldUnindexOnDelete() {
+        repository.save(new Vehicle(1, "ABC-123", null, null, true));
+
+        repository.delete(1);
+
+        assertTrue(repository.findByPlateNumber("ABC-123").isEmpty());
+    }
+
+    @Test
+    @Story("Reject duplicate plate")
+    void shouldRejectDuplicatePlate() {
+        repository.save(new Vehicle(1, "ABC-123", null, null, true));
+
+        assertThrows(BusinessRuleViolationException.class,
+                () -> repository.save(new Vehicle(2, "abc-123", null, null, true)));
+        assertFalse(repository.existsById(2));
+    }
+
+    @Test
+    @Story("Plate filter never hides a registered vehicle")
+    void shouldFindEveryPlateAsFilterGrowsAndRebuilds() {
+        for (int i = 1; i <= 5_000; i++) {
+            repository.save(new Vehicle(i, String.format("CAR-%05d", i), null, null, true));
+        }
+        repository.delete(2_500);
+
+        for (int i = 1; i <= 5_000; i++) {
+            assertEquals(i != 2_500, repository.findByPlateNumber(String.format("car-%05d", i)).isPresent());
+        }
+        repository.save(new Vehicle(2_500, "CAR-02500", null, null, true));
+        assertTrue(repository.plateNumberExists("CAR-02500"));
+        assertFalse(repository.plateNumberExists("UNK-00001"));
+    }
+}
@@ -0,0 +1,98 @@
+import com.research.exception.BusinessRuleViolationException;
+import com.research.model.VisitReservation;
+import com.research.repository.VisitReservationRepository;
+import com.research.service.ValidationService;
+import com.research.service.VisitorService;
+import com.research.util.EpochClock;
+import com.research.util.FixedEpochClock;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Visitor Management")
+@Feature("Visit Reservations")
+class VisitorServiceTest {
+
+    private final VisitReservationRepository repository = new VisitReservationRepository();
+    private final VisitorService visitorService = new VisitorService(repository, new ValidationService());
+    private final LocalDate visitDate = LocalDate.now().plusDays(1);
+    private final LocalTime visitTime = LocalTime.of(10, 0);
+
+    @Test
+    @Story("One live reservation per vehicle and day")
+    void shouldRejectSecondReservationForSameDay() {
+        visitorService.createReservation(1, "Mona", "VIS-001", visitDate, visitTime, 1);
+
+        assertThrows(BusinessRuleViolationException.class,
+                () -> visitorService.createReservation(2, "Mona", "VIS-001", visitDate, visitTime, 1));
+        BusinessRuleViolationException direct = assertThrows(BusinessRuleViolationException.class,
+                () -> repository.save(new VisitReservation(4, "Mona", "vis-001", visitDate, visitTime, 1)));
+        assertEquals("Vehicle vis-001 already has a reservation on " + visitDate, direct.getMessage());
+        visitorService.createReservation(3, "Mona", "VIS-001", visitDate.plusDays(1), visitTime, 1);
+
+        assertEquals(3, repository.findByVehiclePlateAndDate("vis-001", visitDate.plusDays(1)).orElseThrow().getId());
+    }
+
+    @Test
+    @Story("Cancelled reservations free the day")
+    void shouldAllowRebookingAfterCancel() {
+        visitorService.createReservation(1, "Omar", "VIS-002", visitDate, visitTime, 2);
+        visitorService.cancelReservation(1);
+
+        assertFalse(repository.existsByVehiclePlateAndDate("VIS-002", visitDate));
+        visitorService.createReservation(2, "Omar", "VIS-002", visitDate, visitTime, 2);
+        assertEquals(2, repository.findByVehiclePlateAndDate("VIS-002", visitDate).orElseThrow().getId());
+    }
+
+    @Test
+    @Story("Access windows open and expire on schedule")
+    void shouldOpenAndExpireAccessWindows() {
+        FixedEpochClock clock = new FixedEpochClock(EpochClock.toEpochMillis(LocalDateTime.of(visitDate, LocalTime.of(9, 0))));
+        EpochClock.setCurrent(clock);
+        try (VisitReservationRepository windowed = new VisitReservationRepository()) {
+            VisitorService service = new VisitorService(windowed, new ValidationService());
+            service.createReservation(1, "Sara", "VIS-003", visitDate, visitTime, 1);
+
+            assertFalse(service.validateVisitorAccess("VIS-003"));
+            clock.advance(Duration.ofMinutes(30));
+            assertTrue(service.validateVisitorAccess("vis-003"));
+            assertEquals(1, windowed.countOpenWindows());
+            assertEquals(1, service.getActiveReservations().size());
+
+            clock.advance(Duration.ofMinutes(61));
+            assertFalse(service.validateVisitorAccess("VIS-003"));
+            assertTrue(service.getActiveReservations().isEmpty());
+            assertTrue(windowed.findById(1).orElseThrow().isExpired());
+        } finally {
+            EpochClock.setCurrent(EpochClock.SYSTEM);
+        }
+    }
+
+    @Test
+    @Story("Cancelling a reservation withdraws the plate at once")
+    void shouldDropCancelledPlateFromAllowlist() {
+        LocalDate today = LocalDate.now();
+        FixedEpochClock clock = new FixedEpochClock(EpochClock.toEpochMillis(LocalDateTime.of(today, visitTime)));
+        EpochClock.setCurrent(clock);
+        try (VisitReservationRepository windowed = new VisitReservationRepository()) {
+            VisitorService service = new VisitorService(windowed, new ValidationService());
+            service.createReservation(1, "Hany", "VIS-004", today, visitTime, 1);
+            assertTrue(windowed.isAdmissible("VIS-004"));
+
+            service.cancelReservation(1);
+
+            assertFalse(windowed.isAdmissible("VIS-004"));
+            assertEquals(0, windowed.countOpenWindows());
+        } finally {
+            EpochClock.setCurrent(EpochClock.SYSTEM);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+import com.research.model.*;
+import com.research.persistence.*;
+import com.research.repository.GateLaneRepository;
+import com.research.repository.GatePassRepository;
+import com.research.repository.ResidentRepository;
+import com.research.repository.VehicleRepository;
+import com.research.repository.VehicleTypeRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Persistence")
+@Feature("Write-Ahead Log")
+class WriteAheadLogTest {
+
+    @TempDir
+    Path dataDir;
+
+    private List<LogRecord> replayAll(WriteAheadLog log) throws IOException {
+        List<LogRecord> records = new ArrayList<>();
+        log.replay(0, records::add);
+        return records;
+    }
+
+    @Test
+    @Story("Replay records in LSN order after reopening")
+    void shouldReplayRecordsAfterReopen() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(dataDir, FsyncPolicy.ALWAYS)) {
+            log.append(LogOperation.SAVE, 1, new byte[]{1, 2, 3});
+            log.append(LogOperation.DELETE, 1, new byte[0]);
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(dataDir, FsyncPolicy.ALWAYS)) {
+            List<LogRecord> records = replayAll(log);
+            assertEquals(2, records.size());
+            assertEquals(LogOperation.SAVE, records.get(0).operation());
+            assertArrayEquals(new byte[]{1, 2, 3}, records.get(0).payload());
+            assertEquals(3, log.nextLsn());
+        }
+    }
+
+    @Test
+    @Story("Group commit keeps every concurrent append")
+    void shouldKeepEveryConcurrentAppend() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (WriteAheadLog log = WriteAheadLog.open(dataDir, FsyncPolicy.ALWAYS, 4096, Duration.ofMillis(50))) {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int id = i;
+                futures.add(executor.submit(() -> log.append(LogOperation.SAVE, id, new byte[32])));
+            }
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+            List<LogRecord> records = replayAll(log);
+            assertEquals(400, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(i + 1, records.get(i).lsn());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Story("Truncate a torn record at the tail")
+    void shouldTruncateTornTail() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(dataDir, FsyncPolicy.NEVER)) {
+            log.append(LogOperation.SAVE, 1, new byte[]{7});
+            log.append(LogOperation.SAVE, 2, new byte[]{8});
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dataDir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(dataDir, FsyncPolicy.NEVER)) {
+            assertEquals(1, replayAll(log).size());
+            log.append(LogOperation.SAVE, 3, new byte[]{9});
+            assertEquals(2, replayAll(log).size());
+        }
+    }
+
+    @Test
+    @Story("Restore repositories with their references")
+    void shouldRestoreRepositoriesWithReferences() throws Exception {
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            Resident owner = repos.residents.save(new Resident(0, "Jane", "jane@x.com", "123", "A1"));
+            VehicleType car = repos.types.save(new VehicleType(1, "Car", "Passenger car"));
+            Vehicle vehicle = repos.vehicles.save(new Vehicle(0, "ABC-123", owner, car, true));
+            GateLane lane = repos.lanes.save(new GateLane(0, 1, 10, LaneStatus.OPEN));
+            GatePass pass = repos.passes.save(new GatePass(0, vehicle, lane, PassDirection.ENTRY));
+            pass.setStatus(PassStatus.APPROVED);
+            repos.passes.update(pass);
+            repos.residents.delete(repos.residents.save(new Resident(0, "Gone", "g@x.com", "1", "B2")).getId());
+        }
+
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            assertEquals(1, repos.residents.findAll().size());
+            Vehicle vehicle = repos.vehicles.findByPlateNumber("abc-123").orElseThrow();
+            assertSame(repos.residents.findById(1).orElseThrow(), vehicle.getOwner());
+            GatePass pass = repos.passes.findById(1).orElseThrow();
+            assertEquals(PassStatus.APPROVED, pass.getStatus());
+            assertSame(vehicle, pass.getVehicle());
+            assertEquals(3, repos.residents.save(new Resident(0, "Next", "n@x.com", "2", "C3")).getId());
+        }
+    }
+
+    @Test
+    @Story("A pass archived before a crash is not restored as live")
+    void shouldNotRestoreAPassArchivedBeforeACrash() throws Exception {
+        LocalDateTime noon = LocalDateTime.of(2024, 1, 1, 12, 0);
+        GatePass pass;
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            Resident owner = repos.residents.save(new Resident(0, "Jane", "jane@x.com", "123", "A1"));
+            VehicleType car = repos.types.save(new VehicleType(1, "Car", "Passenger car"));
+            Vehicle vehicle = repos.vehicles.save(new Vehicle(0, "ABC-123", owner, car, true));
+            GateLane lane = repos.lanes.save(new GateLane(0, 1, 10, LaneStatus.OPEN));
+            pass = new GatePass(0, vehicle, lane, PassDirection.ENTRY);
+            pass.setPassTime(noon);
+            pass.setStatus(PassStatus.APPROVED);
+            pass = repos.passes.save(pass);
+        }
+        // The process dies after closePass appended to the archive but before it logged the delete
+        try (PassArchive archive = PassArchive.open(dataDir.resolve("pass-archive.dat"))) {
+            pass.setStatus(PassStatus.COMPLETED);
+            archive.append(pass);
+        }
+
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            assertFalse(repos.passes.existsById(pass.getId()));
+            assertEquals(1, repos.passes.countByLaneIdBetween(1, noon, noon.plusMinutes(1)));
+            assertEquals(PassStatus.COMPLETED, repos.passes.findArchivedByVehicleId(1).get(0).status());
+        }
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            assertEquals(1, repos.passes.findArchivedByVehicleId(1).size());
+        }
+    }
+
+    @Test
+    @Story("A batch save is logged as one unit or not at all")
+    void shouldLogBatchSavesAsOneUnit() throws Exception {
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            Resident owner = repos.residents.save(new Resident(0, "Jane", "jane@x.com", "123", "A1"));
+            VehicleType car = repos.types.save(new VehicleType(1, "Car", "Passenger car"));
+
+            assertThrows(RuntimeException.class, () -> repos.vehicles.saveAll(List.of(
+                    new Vehicle(0, "DUP-001", owner, car, true), new Vehicle(0, "DUP-001", owner, car, true))));
+            assertTrue(repos.vehicles.findAll().isEmpty());
+
+            repos.vehicles.saveAll(List.of(new Vehicle(0, "CAR-001", owner, car, true),
+                    new Vehicle(0, "CAR-002", owner, car, true), new Vehicle(0, "CAR-003", owner, car, true)));
+        }
+
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.ALWAYS)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            assertEquals(3, repos.vehicles.findAll().size());
+            assertFalse(repos.vehicles.findByPlateNumber("DUP-001").isPresent());
+        }
+    }
+
+    @Test
+    @Story("Restore from a snapshot plus the log tail")
+    void shouldRestoreFromSnapshotAndLogTail() throws Exception {
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            for (int i = 0; i < 10; i++) {
+                repos.residents.save(new Resident(0, "R" + i, "r@x.com", "1", "U" + i));
+            }
+            store.snapshotAll();
+            repos.residents.delete(1);
+            repos.residents.save(new Resident(0, "Late", "l@x.com", "1", "U99"));
+        }
+        try (Stream<Path> files = Files.list(dataDir.resolve("residents"))) {
+            assertEquals(1, files.filter(file -> file.getFileName().toString().startsWith("snapshot-")).count());
+        }
+
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            assertEquals(10, repos.residents.findAll().size());
+            assertFalse(repos.residents.existsById(1));
+            assertEquals("Late", repos.residents.findById(11).orElseThrow().getFullName());
+        }
+    }
+
+    @Test
+    @Story("A damaged snapshot whose log is gone fails the restore")
+    void shouldFailRestoreFromDamagedSnapshot() throws Exception {
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            repos.residents.save(new Resident(0, "R", "r@x.com", "1", "U"));
+            store.snapshotAll();
+        }
+        Path snapshot;
+        try (Stream<Path> files = Files.list(dataDir.resolve("residents"))) {
+            snapshot = files.filter(file -> file.getFileName().toString().startsWith("snapshot-")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshot, bytes);
+
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            assertThrows(UncheckedIOException.class, () -> new Repositories().attach(store));
+        }
+    }
+
+    @Test
+    @Story("Snapshots taken during writes lose nothing")
+    void shouldNotLoseWritesMadeDuringSnapshots() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        repos.residents.save(new Resident(0, "R", "r@x.com", "1", "U"));
+                    }
+                }));
+            }
+            for (int i = 0; i < 5; i++) {
+                store.snapshotAll();
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (GateDataStore store = new GateDataStore(dataDir, FsyncPolicy.NEVER)) {
+            Repositories repos = new Repositories();
+            repos.attach(store);
+            assertEquals(2000, repos.residents.findAll().size());
+        }
+    }
+
+    private static final class Repositories {
+        private final ResidentRepository residents = new ResidentRepository();
+        private final VehicleTypeRepository types = new VehicleTypeRepository();
+        private final VehicleRepository vehicles = new VehicleRepository();
+        private final GateLaneRepository lanes = new GateLaneRepository();
+        private final GatePassRepository passes = new GatePassRepository();
+
+        private void attach(GateDataStore store) throws IOException {
+            store.attach(residents, types, vehicles, lanes, passes,
+                    new com.research.repository.VisitReservationRepository());
+        }
+    }
+}